@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Starts the application from the plain-classpath layout built by
+#   ./gradlew -PfastStartup fastStartDist
+#
+# Usage: scripts/fast-start.sh <mode> [application args]
+#   train  start once with AOT, dump loaded classes to build/fast-start/app.jsa and exit
+#   aot    start with the AOT-initialized context only
+#   run    start with the AOT-initialized context and the CDS archive (falls back to aot without one)
+#
+# The fast-start profile skips schema validation and Flyway at boot; run migrations as a deploy step.
+set -euo pipefail
+
+DIST_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)/build/fast-start"
+ARCHIVE="$DIST_DIR/app.jsa"
+MAIN_CLASS=com.xogito.project.user.management.ProjectUserManagementApplication
+
+if [[ ! -d "$DIST_DIR/lib" ]]; then
+  echo "Missing $DIST_DIR/lib, run ./gradlew -PfastStartup fastStartDist first" >&2
+  exit 1
+fi
+
+# CDS only accepts an archive when the classpath matches the training run exactly, so list jars in a fixed order.
+CLASSPATH="$(cd "$DIST_DIR" && ls lib/*.jar | LC_ALL=C sort | paste -sd: -)"
+JVM_OPTS=(-Dspring.aot.enabled=true -Dspring.profiles.active=fast-start)
+
+mode="${1:-run}"
+shift || true
+case "$mode" in
+  train)
+    rm -f "$ARCHIVE"
+    JVM_OPTS+=(-XX:ArchiveClassesAtExit=app.jsa -Dapp.startup.training-run=true)
+    ;;
+  aot)
+    ;;
+  run)
+    if [[ -f "$ARCHIVE" ]]; then
+      JVM_OPTS+=(-XX:SharedArchiveFile=app.jsa)
+    else
+      echo "No CDS archive at $ARCHIVE, starting without it" >&2
+    fi
+    ;;
+  *)
+    echo "Unknown mode: $mode (expected train, aot or run)" >&2
+    exit 1
+    ;;
+esac
+
+cd "$DIST_DIR"
+exec java "${JVM_OPTS[@]}" ${JAVA_OPTS:-} -cp "$CLASSPATH" "$MAIN_CLASS" "$@"
@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request: from process start until the HTTP port answers /actuator/health.
+#
+# Prerequisites:
+#   ./gradlew bootJar                   (default mode)
+#   ./gradlew -PfastStartup cdsArchive  (aot and aot+cds modes)
+#
+# Usage: scripts/startup-benchmark.sh [runs per mode, default 5]
+set -euo pipefail
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+RUNS="${1:-5}"
+PORT="${SERVER_PORT:-8080}"
+URL="http://localhost:$PORT/actuator/health"
+
+boot_jar() {
+  ls "$ROOT_DIR"/build/libs/*-SNAPSHOT.jar | grep -v -e '-plain' -e '-fast-start' | head -n 1
+}
+
+start_mode() {
+  case "$1" in
+    default) java -jar "$(boot_jar)" --server.port="$PORT" ;;
+    aot) "$ROOT_DIR/scripts/fast-start.sh" aot --server.port="$PORT" ;;
+    aot+cds) "$ROOT_DIR/scripts/fast-start.sh" run --server.port="$PORT" ;;
+  esac
+}
+
+measure() {
+  local mode="$1" start pid status elapsed
+  start=$(date +%s%N)
+  start_mode "$mode" > /dev/null 2>&1 &
+  pid=$!
+  # Any HTTP status counts: the health payload may be DOWN without a database, the server still answered.
+  until status=$(curl -s -o /dev/null -w '%{http_code}' "$URL") && [[ "$status" != "000" ]]; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "$mode: application exited before serving a request" >&2
+      return 1
+    fi
+    sleep 0.02
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  echo "$elapsed"
+}
+
+printf '%-10s %8s %8s %8s\n' mode min median max
+for mode in default aot aot+cds; do
+  samples=()
+  for ((run = 0; run < RUNS; run++)); do
+    samples+=("$(measure "$mode")")
+  done
+  sorted=($(printf '%s\n' "${samples[@]}" | sort -n))
+  printf '%-10s %6sms %6sms %6sms\n' "$mode" "${sorted[0]}" "${sorted[$((RUNS / 2))]}" "${sorted[$((RUNS - 1))]}"
+done
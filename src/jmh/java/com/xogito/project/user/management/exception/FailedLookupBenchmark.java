@@ -0,0 +1,72 @@
+package com.xogito.project.user.management.exception;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of one failed lookup, thrown from {@code depth} frames down and caught at the top as a controller
+ * advice would, with the exception types used before and after the switch to {@link DomainException}.
+ * The message is read once, as the error response does.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhIncludes=FailedLookupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FailedLookupBenchmark {
+    // A request through Spring MVC, the transaction proxy and the coalescer is well over 100 frames deep.
+    @Param({"20", "150"})
+    private int depth;
+
+    private final UUID id = UUID.randomUUID();
+
+    @Benchmark
+    public String illegalArgumentException() {
+        try {
+            return lookup(depth, () -> new IllegalArgumentException("User not found with ID: " + id));
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String notFoundException() {
+        try {
+            return lookup(depth, () -> NotFoundException.user(id));
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String sharedNoMatches() {
+        try {
+            return lookup(depth, NotFoundException::noUsers);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static String lookup(int depth, Supplier<RuntimeException> failure) {
+        if (depth > 0) {
+            return lookup(depth - 1, failure);
+        }
+        return Optional.<String>empty().orElseThrow(failure);
+    }
+}
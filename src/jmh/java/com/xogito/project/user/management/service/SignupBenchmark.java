@@ -0,0 +1,168 @@
+package com.xogito.project.user.management.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent signups against MySQL, comparing the former create path (check the email, then insert) with the
+ * single INSERT that relies on the unique email constraint. Each signup commits, like a request would.
+ * {@code duplicatePercent} of the signups reuse an existing email.
+ * <p>
+ * Uses its own {@code signup_benchmark_users} table, shaped like {@code users}. Run with
+ * {@code ./gradlew jmh -PjmhIncludes=SignupBenchmark}, pointing it at a database with the
+ * {@code BENCHMARK_JDBC_URL}, {@code BENCHMARK_JDBC_USERNAME} and {@code BENCHMARK_JDBC_PASSWORD} environment
+ * variables. Throughput mode reports signups per millisecond, sample-time mode the latency percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class SignupBenchmark {
+    private static final String TABLE = "signup_benchmark_users";
+    private static final int EXISTING_EMAILS = 1000;
+
+    @Param({"0", "20"})
+    private int duplicatePercent;
+
+    private final AtomicLong nextEmail = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void createTable() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id BINARY(16) NOT NULL, name VARCHAR(255), "
+                    + "email VARCHAR(255), email_lower VARCHAR(255), email_domain VARCHAR(255), PRIMARY KEY (id), "
+                    + "CONSTRAINT uk_" + TABLE + "_email UNIQUE (email)) ENGINE = InnoDB");
+        }
+        try (Connection connection = connect()) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < EXISTING_EMAILS; i++) {
+                insert(connection, existingEmail(i));
+            }
+            connection.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dropTable() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        private Connection connection;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public boolean checkThenInsert(Session session) throws SQLException {
+        Connection connection = session.connection;
+        String email = nextSignupEmail();
+        try (PreparedStatement exists = connection.prepareStatement("SELECT 1 FROM " + TABLE + " WHERE email = ? LIMIT 1")) {
+            exists.setString(1, email);
+            try (ResultSet rs = exists.executeQuery()) {
+                if (rs.next()) {
+                    connection.rollback();
+                    return false;
+                }
+            }
+        }
+        return insertOrReject(connection, email);
+    }
+
+    @Benchmark
+    public boolean insertOnly(Session session) throws SQLException {
+        return insertOrReject(session.connection, nextSignupEmail());
+    }
+
+    private boolean insertOrReject(Connection connection, String email) throws SQLException {
+        try {
+            insert(connection, email);
+            connection.commit();
+            return true;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            connection.rollback();
+            return false;
+        }
+    }
+
+    private String nextSignupEmail() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < duplicatePercent) {
+            return existingEmail(random.nextInt(EXISTING_EMAILS));
+        }
+        return "signup" + nextEmail.incrementAndGet() + "-" + duplicatePercent + "@example.com";
+    }
+
+    private static String existingEmail(int i) {
+        return "existing" + i + "@example.com";
+    }
+
+    private static void insert(Connection connection, String email) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + TABLE
+                + " (id, name, email, email_lower, email_domain) VALUES (?, ?, ?, ?, ?)")) {
+            UUID id = UUID.randomUUID();
+            insert.setBytes(1, ByteBuffer.allocate(16)
+                    .putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits())
+                    .array());
+            insert.setString(2, "Signup");
+            insert.setString(3, email);
+            insert.setString(4, email);
+            insert.setString(5, "example.com");
+            insert.executeUpdate();
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                env("BENCHMARK_JDBC_URL", "jdbc:mysql://localhost:3306/projectusermanagement"),
+                env("BENCHMARK_JDBC_USERNAME", "root"),
+                env("BENCHMARK_JDBC_PASSWORD", "root"));
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null ? defaultValue : value;
+    }
+}
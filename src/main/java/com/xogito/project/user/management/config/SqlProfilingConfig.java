@@ -0,0 +1,48 @@
+package com.xogito.project.user.management.config;
+
+import com.xogito.project.user.management.profiling.SqlProfileFilter;
+import com.xogito.project.user.management.profiling.SqlProfileProperties;
+import com.xogito.project.user.management.profiling.SqlProfilingListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces {@code spring.jpa.show-sql} with latency-aware statement logging, see {@link SqlProfilingListener}.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlProfileProperties.class)
+public class SqlProfilingConfig {
+
+    @Bean
+    static BeanPostProcessor sqlProfilingDataSourcePostProcessor(ObjectProvider<SqlProfileProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlProfileProperties profileProperties = properties.getObject();
+                if (!profileProperties.isEnabled()) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new SqlProfilingListener(profileProperties))
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlProfileFilter> sqlProfileFilter() {
+        return new FilterRegistrationBean<>(new SqlProfileFilter());
+    }
+}
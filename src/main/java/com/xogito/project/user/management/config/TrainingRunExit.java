@@ -0,0 +1,27 @@
+package com.xogito.project.user.management.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shuts the application down as soon as it has started when {@code app.startup.training-run} is set,
+ * so the JVM can write the AppCDS archive recorded by {@code -XX:ArchiveClassesAtExit}.
+ * <p>
+ * Deliberately not conditional on the property: AOT processing would evaluate the condition at build time.
+ */
+@Component
+public class TrainingRunExit {
+
+    @Value("${app.startup.training-run:false}")
+    private boolean trainingRun;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void exitAfterStartup(ApplicationReadyEvent event) {
+        if (trainingRun) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
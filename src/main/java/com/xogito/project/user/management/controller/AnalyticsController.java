@@ -0,0 +1,22 @@
+package com.xogito.project.user.management.controller;
+
+import com.xogito.project.user.management.dto.MembershipAnalyticsDTO;
+import com.xogito.project.user.management.service.MembershipAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+    private final MembershipAnalyticsService membershipAnalyticsService;
+
+    @GetMapping("/memberships")
+    public ResponseEntity<MembershipAnalyticsDTO> getMembershipAnalytics(@RequestParam(defaultValue = "10") int top) {
+        return ResponseEntity.ok(membershipAnalyticsService.getAnalytics(top));
+    }
+}
@@ -0,0 +1,24 @@
+package com.xogito.project.user.management.controller;
+
+import com.xogito.project.user.management.dto.BatchOperationDTO;
+import com.xogito.project.user.management.service.BatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+public class BatchController {
+    private final BatchService batchService;
+
+    @PostMapping
+    public ResponseEntity<Object> execute(@RequestBody List<BatchOperationDTO> operations) {
+        return ResponseEntity.ok(batchService.execute(operations));
+    }
+}
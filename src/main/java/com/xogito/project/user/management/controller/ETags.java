@@ -0,0 +1,49 @@
+package com.xogito.project.user.management.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GETs on row versions. The ETag of a 200 is always the version of the row in its body; the
+ * version-only lookup is made just to answer an {@code If-None-Match}.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    /**
+     * Whether any tag of {@code If-None-Match} names {@code version}, comparing weakly as RFC 9110 asks for.
+     */
+    static boolean matches(WebRequest request, long version) {
+        String header = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (header == null) {
+            return false;
+        }
+        String current = quoted(version);
+        for (String tag : header.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static ResponseEntity<Object> notModified(long version) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(quoted(version)).build();
+    }
+
+    private static String quoted(long version) {
+        return "\"" + version + "\"";
+    }
+}
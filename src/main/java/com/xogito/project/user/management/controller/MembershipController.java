@@ -0,0 +1,39 @@
+package com.xogito.project.user.management.controller;
+
+import com.xogito.project.user.management.service.MembershipService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/memberships")
+@RequiredArgsConstructor
+public class MembershipController {
+    private final MembershipService membershipService;
+
+    @GetMapping("/projects/{projectId}/users/{userId}")
+    public ResponseEntity<Map<String, Boolean>> isMember(@PathVariable UUID projectId, @PathVariable UUID userId) {
+        return ResponseEntity.ok(Map.of("member", membershipService.isMember(projectId, userId)));
+    }
+
+    @GetMapping("/users/{userId}/common-projects/{otherUserId}")
+    public ResponseEntity<List<UUID>> findCommonProjects(@PathVariable UUID userId, @PathVariable UUID otherUserId) {
+        return ResponseEntity.ok(membershipService.findCommonProjects(userId, otherUserId));
+    }
+
+    @GetMapping("/users/{userId}/collaborators")
+    public ResponseEntity<List<UUID>> findCollaborators(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(membershipService.findCollaborators(userId, limit));
+    }
+}
@@ -1,8 +1,14 @@
 package com.xogito.project.user.management.controller;
 
+import com.xogito.project.user.management.dto.BulkDeleteRequestDTO;
+import com.xogito.project.user.management.dto.MemberTransferRequestDTO;
 import com.xogito.project.user.management.dto.ProjectDTO;
+import com.xogito.project.user.management.dto.ProjectDetailsDTO;
+import com.xogito.project.user.management.dto.ProjectPatchDTO;
+import com.xogito.project.user.management.mapper.ProjectUserMapper;
 import com.xogito.project.user.management.model.Project;
 import com.xogito.project.user.management.service.ProjectService;
+import com.xogito.project.user.management.support.Fieldset;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -10,79 +16,134 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/projects")
 @RequiredArgsConstructor
 public class ProjectController {
+    private static final List<String> PROJECT_FIELDS = List.of("id", "name", "description", "memberCount");
+    private static final String RETURN_REPRESENTATION = "return=representation";
+
     private final ProjectService projectService;
+    private final ProjectUserMapper projectUserMapper;
 
+    /**
+     * Answers with the version of the project it returns as ETag. A matching {@code If-None-Match} gets a 304
+     * after reading only that version.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getProject(@PathVariable UUID id) {
-        try {
-            Project project = projectService.findProjectById(id);
+    public ResponseEntity<Object> getProject(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String expand,
+            @RequestParam(defaultValue = "100") int userLimit,
+            @RequestParam(required = false) String fields,
+            WebRequest request
+    ) {
+        boolean expandUsers = "users".equals(expand);
+        // Renaming a member does not change the project's version, so the expanded form carries no ETag.
+        if (!expandUsers && ETags.isConditional(request)) {
+            long version = projectService.getProjectVersion(id);
+            if (ETags.matches(request, version)) {
+                return ETags.notModified(version);
+            }
+        }
+        if (fields != null) {
+            Fieldset selected = Fieldset.parse(fields, PROJECT_FIELDS);
+            if (expandUsers) {
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(projectService.getProjectFields(id, selected, true, userLimit));
+            }
+            // The row may be shared with coalesced callers, so the version is taken off a copy.
+            Map<String, Object> project = new LinkedHashMap<>(
+                    projectService.getProjectFields(id, selected.including("version"), false, userLimit));
+            Object version = project.remove("version");
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(String.valueOf(version)).body(project);
+        }
+        ProjectDetailsDTO project = projectService.getProjectDetails(id, expandUsers, userLimit);
+        if (expandUsers) {
             return ResponseEntity.status(HttpStatus.CREATED).body(project);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        } catch (ResponseStatusException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
         }
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(String.valueOf(project.getVersion())).body(project);
     }
 
     @PostMapping
     public ResponseEntity<Object> createProject(@RequestBody ProjectDTO project) {
-        try {
-            Project isProjectCreated = projectService.createProject(project);
-            return ResponseEntity.status(HttpStatus.CREATED).body(isProjectCreated);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        } catch (ResponseStatusException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
-        }
+        Project isProjectCreated = projectService.createProject(project);
+        return ResponseEntity.status(HttpStatus.CREATED).body(projectUserMapper.mapProjectToProjectDto(isProjectCreated));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Object> updateProject(@PathVariable UUID id, @Valid @RequestBody ProjectDTO project) {
-        try {
-            Project updatedProjectRegister = projectService.updateProject(id, project);
-            return ResponseEntity.status(HttpStatus.CREATED).body(updatedProjectRegister);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        } catch (ResponseStatusException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
-        }
+        Project updatedProjectRegister = projectService.updateProject(id, project);
+        return ResponseEntity.status(HttpStatus.CREATED).body(projectUserMapper.mapProjectToProjectDto(updatedProjectRegister));
 
     }
 
+    /**
+     * Changes only the given fields. Answers 204 without reading the project back, unless the request asks
+     * for the result with {@code Prefer: return=representation}.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Object> patchProject(
+            @PathVariable UUID id,
+            @RequestBody ProjectPatchDTO patch,
+            @RequestHeader(value = "Prefer", required = false) String prefer
+    ) {
+        projectService.patchProject(id, patch);
+        if (!RETURN_REPRESENTATION.equalsIgnoreCase(prefer)) {
+            return ResponseEntity.noContent().build();
+        }
+        Project project = projectService.readBackProject(id);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(project.getVersion()))
+                .body(projectUserMapper.mapProjectToProjectDto(project));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteProject(@PathVariable UUID id) {
-        return projectService.deleteProject(id);
+        projectService.deleteProject(id);
+        return ResponseEntity.status(HttpStatus.CREATED).body("Project deleted successfully!");
+    }
+
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<Object> deleteProjects(@RequestBody BulkDeleteRequestDTO request) {
+        return ResponseEntity.ok(projectService.deleteProjects(request));
     }
 
     @GetMapping
-    public ResponseEntity<List<Project>> searchProjectsByName(
+    public ResponseEntity<Object> searchProjectsByName(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int pageNumber,
-            @RequestParam(defaultValue = "10") int pageSize
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(required = false) String fields
     ) {
+        if (fields != null) {
+            return ResponseEntity.ok(projectService.searchProjectFieldsByName(name, pageNumber, pageSize,
+                    Fieldset.parse(fields, PROJECT_FIELDS)));
+        }
         List<Project> projects = projectService.searchProjectsByName(name, pageNumber, pageSize);
-        return ResponseEntity.ok(projects);
+        return ResponseEntity.ok(projectUserMapper.mapProjectsToProjectDtos(projects));
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<ProjectDTO>> getAllProjects() {
+    public ResponseEntity<Object> getAllProjects(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(projectService.getAllProjectFields(Fieldset.parse(fields, PROJECT_FIELDS)));
+        }
         List<ProjectDTO> projects = projectService.getAllProjects();
         return ResponseEntity.ok(projects);
     }
 
     @PostMapping("/{projectId}/users/{userId}")
     public ResponseEntity<Object> assignUserToProject(@PathVariable UUID projectId, @PathVariable UUID userId) {
-        return projectService.assignUserToProject(projectId, userId);
-        //return ResponseEntity.status(HttpStatus.CREATED).body(updatedProject);
+        projectService.assignUserToProject(projectId, userId);
+        return ResponseEntity.status(HttpStatus.CREATED).body("Assign process completed succesffully");
     }
 
     @DeleteMapping("/{projectId}/users/{userId}")
@@ -90,4 +151,22 @@ public class ProjectController {
         projectService.removeUserFromProject(projectId, userId);
         return ResponseEntity.ok("User successfully removed from the project");
     }
+
+    @PostMapping("/{sourceId}/users/copy-to/{targetId}")
+    public ResponseEntity<Object> copyMembers(
+            @PathVariable UUID sourceId,
+            @PathVariable UUID targetId,
+            @RequestBody(required = false) MemberTransferRequestDTO request
+    ) {
+        return ResponseEntity.ok(projectService.copyMembers(sourceId, targetId, request));
+    }
+
+    @PostMapping("/{sourceId}/users/move-to/{targetId}")
+    public ResponseEntity<Object> moveMembers(
+            @PathVariable UUID sourceId,
+            @PathVariable UUID targetId,
+            @RequestBody(required = false) MemberTransferRequestDTO request
+    ) {
+        return ResponseEntity.ok(projectService.moveMembers(sourceId, targetId, request));
+    }
 }
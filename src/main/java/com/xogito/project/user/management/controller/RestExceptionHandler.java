@@ -0,0 +1,75 @@
+package com.xogito.project.user.management.controller;
+
+import com.xogito.project.user.management.dto.ErrorDTO;
+import com.xogito.project.user.management.exception.ConflictException;
+import com.xogito.project.user.management.exception.DuplicateEmailException;
+import com.xogito.project.user.management.exception.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Maps service-layer failures to responses for every controller:
+ * missing entities and empty searches are 404, invalid input is 400, and conflicts with existing
+ * data (a taken email, a concurrent change, a state that forbids the operation) are 409. Anything
+ * else is left to the default handling as a 500, without echoing its message.
+ */
+@Slf4j
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ErrorDTO> handleNotFound(NotFoundException e) {
+        return error(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(DuplicateEmailException.class)
+    public ResponseEntity<ErrorDTO> handleDuplicateEmail(DuplicateEmailException e) {
+        return error(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorDTO> handleIllegalArgument(IllegalArgumentException e) {
+        return error(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorDTO> handleConflict(ConflictException e) {
+        return error(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorDTO> handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        return error(HttpStatus.CONFLICT, "Request conflicts with a concurrent change, retry it");
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDTO> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        return error(HttpStatus.CONFLICT, "Entity was changed concurrently, retry the request");
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorDTO> handleResponseStatus(ResponseStatusException e) {
+        return error(e.getStatusCode(), e.getReason());
+    }
+
+    @ExceptionHandler(UncheckedIOException.class)
+    public ResponseEntity<ErrorDTO> handleUncheckedIO(UncheckedIOException e) {
+        log.error("I/O failure while handling a request", e);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Could not read or write server storage");
+    }
+
+    private static ResponseEntity<ErrorDTO> error(HttpStatusCode status, String message) {
+        HttpStatus resolved = HttpStatus.resolve(status.value());
+        String error = resolved == null ? String.valueOf(status.value()) : resolved.getReasonPhrase();
+        return ResponseEntity.status(status).body(new ErrorDTO(status.value(), error, message));
+    }
+}
@@ -0,0 +1,27 @@
+package com.xogito.project.user.management.controller;
+
+import com.xogito.project.user.management.service.SnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/snapshots")
+@RequiredArgsConstructor
+public class SnapshotController {
+    private final SnapshotService snapshotService;
+
+    @PostMapping("/{name}/export")
+    public ResponseEntity<Object> exportSnapshot(@PathVariable String name) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(snapshotService.exportSnapshot(name));
+    }
+
+    @PostMapping("/{name}/import")
+    public ResponseEntity<Object> importSnapshot(@PathVariable String name) {
+        return ResponseEntity.ok(snapshotService.importSnapshot(name));
+    }
+}
@@ -1,37 +1,60 @@
 package com.xogito.project.user.management.controller;
 
 ;
+import com.xogito.project.user.management.dto.BulkDeleteRequestDTO;
+import com.xogito.project.user.management.dto.UserDTO;
+import com.xogito.project.user.management.dto.UserPatchDTO;
+import com.xogito.project.user.management.mapper.ProjectUserMapper;
 import com.xogito.project.user.management.model.User;
 import com.xogito.project.user.management.service.UserService;
-import jakarta.persistence.EntityNotFoundException;
+import com.xogito.project.user.management.support.Fieldset;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final List<String> USER_FIELDS = List.of("id", "name", "email");
+    private static final String RETURN_REPRESENTATION = "return=representation";
+
     private final UserService userService;
+    private final ProjectUserMapper projectUserMapper;
 
+    /**
+     * Answers with the version of the user it returns as ETag. A matching {@code If-None-Match} gets a 304
+     * after reading only that version.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUser(@PathVariable UUID id) {
-        try {
-            User user = userService.findUserById(id);
-            return ResponseEntity.status(HttpStatus.CREATED).body(user);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        } catch (ResponseStatusException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+    public ResponseEntity<Object> getUser(@PathVariable UUID id, @RequestParam(required = false) String fields,
+                                          WebRequest request) {
+        if (ETags.isConditional(request)) {
+            long version = userService.getUserVersion(id);
+            if (ETags.matches(request, version)) {
+                return ETags.notModified(version);
+            }
+        }
+        if (fields != null) {
+            // The row may be shared with coalesced callers, so the version is taken off a copy.
+            Map<String, Object> user = new LinkedHashMap<>(userService.findUserFieldsById(
+                    id, Fieldset.parse(fields, USER_FIELDS).including("version")));
+            Object version = user.remove("version");
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(String.valueOf(version)).body(user);
         }
+        User user = userService.findUserById(id);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(String.valueOf(user.getVersion()))
+                .body(projectUserMapper.mapUserToUserDto(user));
     }
 
     @PostMapping
@@ -40,14 +63,8 @@ public class UserController {
             String errorMessage = bindingResult.getFieldError().getDefaultMessage();
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Validation failed: " + errorMessage);
         }
-        try {
-            User createdUser = userService.createUser(user);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        } catch (ResponseStatusException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
-        }
+        User createdUser = userService.createUser(user);
+        return ResponseEntity.status(HttpStatus.CREATED).body(projectUserMapper.mapUserToUserDto(createdUser));
     }
 
     @PutMapping("/{id}")
@@ -56,33 +73,76 @@ public class UserController {
             String errorMessage = bindingResult.getFieldError().getDefaultMessage();
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Validation failed: " + errorMessage);
         }
-        try {
-            User updatedUser = userService.updateUser(UUID.fromString(id), user);
-            return ResponseEntity.status(HttpStatus.CREATED).body(updatedUser);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-        } catch (ResponseStatusException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+        User updatedUser = userService.updateUser(UUID.fromString(id), user);
+        return ResponseEntity.status(HttpStatus.CREATED).body(projectUserMapper.mapUserToUserDto(updatedUser));
+    }
+
+    /**
+     * Changes only the given fields. Answers 204 without reading the user back, unless the request asks
+     * for the result with {@code Prefer: return=representation}.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Object> patchUser(
+            @PathVariable UUID id,
+            @Valid @RequestBody UserPatchDTO patch,
+            BindingResult bindingResult,
+            @RequestHeader(value = "Prefer", required = false) String prefer
+    ) {
+        if (bindingResult.hasErrors()) {
+            String errorMessage = bindingResult.getFieldError().getDefaultMessage();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Validation failed: " + errorMessage);
         }
+        userService.patchUser(id, patch);
+        if (!RETURN_REPRESENTATION.equalsIgnoreCase(prefer)) {
+            return ResponseEntity.noContent().build();
+        }
+        User user = userService.readBackUser(id);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(user.getVersion()))
+                .body(projectUserMapper.mapUserToUserDto(user));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteUser(@PathVariable UUID id) {
-        return userService.deleteUser(id);
+        userService.deleteUser(id);
+        return ResponseEntity.status(HttpStatus.CREATED).body("User deleted successfully!");
+    }
+
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<Object> deleteUsers(@RequestBody BulkDeleteRequestDTO request) {
+        return ResponseEntity.ok(userService.deleteUsers(request));
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> searchUsersByNameAndEmail(
+    public ResponseEntity<Object> searchUsersByNameAndEmail(
             @RequestParam String name,
             @RequestParam String email,
             @RequestParam(defaultValue = "0") int pageNumber,
-            @RequestParam(defaultValue = "10") int pageSize
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(required = false) String fields
+    ) {
+        if (fields != null) {
+            return ResponseEntity.ok(userService.searchUserFieldsByNameAndEmail(name, email, pageNumber, pageSize,
+                    Fieldset.parse(fields, USER_FIELDS)));
+        }
+        List<User> users = userService.searchUsersByNameAndEmail(name, email, pageNumber, pageSize);
+        return ResponseEntity.ok(projectUserMapper.mapUsersToUserDtos(users));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Object> searchUsers(
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(required = false) String emailDomain,
+            @RequestParam(defaultValue = "0") int pageNumber,
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(required = false) String fields
     ) {
-        try {
-            List<User> users = userService.searchUsersByNameAndEmail(name, email, pageNumber, pageSize);
-            return ResponseEntity.ok(users);
-        } catch (EntityNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.emptyList());
+        if (fields != null) {
+            return ResponseEntity.ok(userService.searchUserFields(namePrefix, emailPrefix, emailDomain,
+                    pageNumber, pageSize, Fieldset.parse(fields, USER_FIELDS)));
         }
+        List<User> users = userService.searchUsers(namePrefix, emailPrefix, emailDomain, pageNumber, pageSize);
+        return ResponseEntity.ok(projectUserMapper.mapUsersToUserDtos(users));
     }
 }
@@ -0,0 +1,26 @@
+package com.xogito.project.user.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One operation of a {@code POST /batch} request. {@code projectId} and {@code userId} take either an id or
+ * {@code $ref}, where {@code ref} was given to a create operation earlier in the same batch.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationDTO {
+    private Type op;
+    private String ref;
+    private String name;
+    private String email;
+    private String description;
+    private String projectId;
+    private String userId;
+
+    public enum Type { CREATE_USER, CREATE_PROJECT, ASSIGN_USER, REMOVE_USER }
+}
@@ -0,0 +1,22 @@
+package com.xogito.project.user.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationResultDTO {
+    private int index;
+    private BatchOperationDTO.Type op;
+    private String ref;
+    private UUID id;
+    private Status status;
+
+    public enum Status { CREATED, ASSIGNED, REMOVED, NOT_ASSIGNED }
+}
@@ -0,0 +1,23 @@
+package com.xogito.project.user.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects what a bulk delete removes: either explicit ids, or every row whose name or email starts with the
+ * given prefix. {@code %} and {@code _} in a prefix are matched literally.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequestDTO {
+    private List<UUID> ids;
+    private String nameLike;
+    private String emailLike;
+}
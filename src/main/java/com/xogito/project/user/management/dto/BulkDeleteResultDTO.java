@@ -0,0 +1,15 @@
+package com.xogito.project.user.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResultDTO {
+    private int membershipsDeleted;
+    private int deleted;
+}
@@ -0,0 +1,16 @@
+package com.xogito.project.user.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorDTO {
+    private int status;
+    private String error;
+    private String message;
+}
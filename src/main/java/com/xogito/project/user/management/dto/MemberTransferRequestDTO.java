@@ -0,0 +1,22 @@
+package com.xogito.project.user.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Restricts a member move or copy to some of the source project's members. With neither field set,
+ * all members are transferred.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberTransferRequestDTO {
+    private List<UUID> userIds;
+    private String emailLike;
+}
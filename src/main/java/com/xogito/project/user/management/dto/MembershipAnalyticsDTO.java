@@ -0,0 +1,23 @@
+package com.xogito.project.user.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipAnalyticsDTO {
+    private List<RankedEntryDTO> largestProjects;
+    private List<RankedEntryDTO> busiestUsers;
+    private Map<String, Long> projectSizeHistogram;
+    private long orphanProjects;
+    private long orphanUsers;
+    private Instant computedAt;
+}
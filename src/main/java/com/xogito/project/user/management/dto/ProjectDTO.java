@@ -15,5 +15,6 @@ public class ProjectDTO {
     private UUID id;
     private String name;
     private String description;
+    private int memberCount;
 
 }
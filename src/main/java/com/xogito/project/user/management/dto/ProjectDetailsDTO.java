@@ -0,0 +1,28 @@
+package com.xogito.project.user.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectDetailsDTO {
+    private UUID id;
+    private String name;
+    private String description;
+    private int memberCount;
+    // Only present with ?expand=users, capped at the requested limit.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<UserDTO> users;
+    // Sent as the ETag rather than in the body.
+    @JsonIgnore
+    private long version;
+}
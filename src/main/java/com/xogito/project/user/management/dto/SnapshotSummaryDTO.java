@@ -0,0 +1,19 @@
+package com.xogito.project.user.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotSummaryDTO {
+    private String file;
+    private long users;
+    private long projects;
+    private long memberships;
+    private long bytes;
+    private long durationMillis;
+}
@@ -0,0 +1,21 @@
+package com.xogito.project.user.management.dto;
+
+import jakarta.validation.constraints.Email;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Fields to change on a user. Absent or null fields are left as they are.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPatchDTO {
+    private String name;
+
+    @Email(message = "Invalid email format")
+    private String email;
+}
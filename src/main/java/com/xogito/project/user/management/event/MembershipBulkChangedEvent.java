@@ -0,0 +1,14 @@
+package com.xogito.project.user.management.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a set-based statement changed an unknown number of memberships at once.
+ * Listeners holding membership-derived state should rebuild it rather than patch it.
+ */
+@Getter
+@AllArgsConstructor
+public class MembershipBulkChangedEvent {
+    private final String operation;
+}
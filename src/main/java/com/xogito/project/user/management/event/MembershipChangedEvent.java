@@ -0,0 +1,17 @@
+package com.xogito.project.user.management.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Published after a single user was assigned to or removed from a project.
+ */
+@Getter
+@AllArgsConstructor
+public class MembershipChangedEvent {
+    private final UUID projectId;
+    private final UUID userId;
+    private final boolean assigned;
+}
@@ -0,0 +1,19 @@
+package com.xogito.project.user.management.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published after a set-based statement added or removed known members of one project, such as a member
+ * copy or move. Listeners apply it like the corresponding {@link MembershipChangedEvent}s.
+ */
+@Getter
+@AllArgsConstructor
+public class ProjectMembersChangedEvent {
+    private final UUID projectId;
+    private final List<UUID> addedUserIds;
+    private final List<UUID> removedUserIds;
+}
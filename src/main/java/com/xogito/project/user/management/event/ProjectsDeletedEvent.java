@@ -0,0 +1,18 @@
+package com.xogito.project.user.management.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published after projects were deleted together with all of their memberships.
+ */
+@Getter
+@AllArgsConstructor
+public class ProjectsDeletedEvent {
+    private final List<UUID> projectIds;
+    // The users of the deleted memberships, once per membership.
+    private final List<UUID> memberIds;
+}
@@ -0,0 +1,18 @@
+package com.xogito.project.user.management.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published after users were deleted together with all of their memberships.
+ */
+@Getter
+@AllArgsConstructor
+public class UsersDeletedEvent {
+    private final List<UUID> userIds;
+    // The projects of the deleted memberships, once per membership.
+    private final List<UUID> projectIds;
+}
@@ -0,0 +1,12 @@
+package com.xogito.project.user.management.exception;
+
+/**
+ * The request is valid but the current state of the data or the deployment forbids it, such as importing a
+ * snapshot into a database that already has rows. The message is written for the client.
+ */
+public class ConflictException extends DomainException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.xogito.project.user.management.exception;
+
+/**
+ * Base of the expected outcomes the service layer reports by exception, such as a missing entity or a taken
+ * email. They happen on every other request, so they are created without a stack trace and without
+ * suppression bookkeeping, which is where nearly all the cost of an ordinary exception goes.
+ * {@code RestExceptionHandler} maps each subclass to its status.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,16 @@
+package com.xogito.project.user.management.exception;
+
+/**
+ * Another user already has the email. Carries no state, so a single instance is shared.
+ */
+public class DuplicateEmailException extends DomainException {
+    private static final DuplicateEmailException INSTANCE = new DuplicateEmailException();
+
+    private DuplicateEmailException() {
+        super("Email already exists");
+    }
+
+    public static DuplicateEmailException instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,47 @@
+package com.xogito.project.user.management.exception;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * A lookup by id found nothing, or a search had no matches. The message is only built when it is read.
+ */
+@Getter
+public class NotFoundException extends DomainException {
+    // Nothing about an empty search differs between calls, and stackless exceptions are immutable.
+    private static final NotFoundException NO_USERS = new NotFoundException("users", null);
+    private static final NotFoundException NO_PROJECTS = new NotFoundException("projects", null);
+
+    private final String entity;
+    private final UUID id;
+
+    private NotFoundException(String entity, UUID id) {
+        super(null);
+        this.entity = entity;
+        this.id = id;
+    }
+
+    public static NotFoundException user(UUID id) {
+        return new NotFoundException("User", id);
+    }
+
+    public static NotFoundException project(UUID id) {
+        return new NotFoundException("Project", id);
+    }
+
+    public static NotFoundException noUsers() {
+        return NO_USERS;
+    }
+
+    public static NotFoundException noProjects() {
+        return NO_PROJECTS;
+    }
+
+    @Override
+    public String getMessage() {
+        return id == null
+                ? "No " + entity + " found with the provided search criteria."
+                : entity + " not found with ID: " + id;
+    }
+}
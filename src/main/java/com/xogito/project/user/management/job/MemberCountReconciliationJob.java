@@ -0,0 +1,33 @@
+package com.xogito.project.user.management.job;
+
+import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.sharding.Shards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repairs drift between {@code projects.member_count} and the rows actually present in {@code project_user},
+ * e.g. after manual data fixes or writes that bypassed the service layer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberCountReconciliationJob {
+    private final ProjectRepository projectRepository;
+    private final Shards shards;
+
+    @Scheduled(cron = "${app.member-count.reconcile-cron:0 0 3 * * *}")
+    @Transactional
+    public int reconcile() {
+        int repaired = shards.onEveryShard(projectRepository::reconcileMemberCounts).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (repaired > 0) {
+            log.warn("Repaired member count on {} project(s)", repaired);
+        }
+        return repaired;
+    }
+}
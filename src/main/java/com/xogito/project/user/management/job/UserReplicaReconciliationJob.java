@@ -0,0 +1,27 @@
+package com.xogito.project.user.management.job;
+
+import com.xogito.project.user.management.sharding.UserReplicas;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repairs user replicas that drifted from shard 0, e.g. after a replication that failed half way.
+ * Does nothing without sharding.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserReplicaReconciliationJob {
+    private final UserReplicas userReplicas;
+
+    @Scheduled(cron = "${app.sharding.user-reconcile-cron:0 30 3 * * *}")
+    public long reconcile() {
+        long repaired = userReplicas.reconcile();
+        if (repaired > 0) {
+            log.warn("Repaired {} user replica(s)", repaired);
+        }
+        return repaired;
+    }
+}
@@ -1,14 +1,35 @@
 package com.xogito.project.user.management.mapper;
 
 import com.xogito.project.user.management.dto.ProjectDTO;
+import com.xogito.project.user.management.dto.UserDTO;
 import com.xogito.project.user.management.model.Project;
+import com.xogito.project.user.management.model.User;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class ProjectUserMapper {
     public Project mapProjectDtoToProject(ProjectDTO projectDto) {
         ModelMapper modelMapper = new ModelMapper();
         return modelMapper.map(projectDto, Project.class);
     }
+
+    // Response mappings copy scalar columns only, so they never touch lazy associations.
+    public ProjectDTO mapProjectToProjectDto(Project project) {
+        return new ProjectDTO(project.getId(), project.getName(), project.getDescription(), project.getMemberCount());
+    }
+
+    public List<ProjectDTO> mapProjectsToProjectDtos(List<Project> projects) {
+        return projects.stream().map(this::mapProjectToProjectDto).toList();
+    }
+
+    public UserDTO mapUserToUserDto(User user) {
+        return new UserDTO(user.getId(), user.getName(), user.getEmail());
+    }
+
+    public List<UserDTO> mapUsersToUserDtos(List<User> users) {
+        return users.stream().map(this::mapUserToUserDto).toList();
+    }
 }
@@ -1,5 +1,6 @@
 package com.xogito.project.user.management.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -7,6 +8,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
+
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +32,20 @@ public class Project {
     @Column(name = "description")
     private String description;
 
+    // Maintained only by set-based UPDATEs in ProjectRepository, never written from the entity.
+    @Column(name = "member_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int memberCount;
+
+    // Incremented by every change to the project or its member count; the set-based UPDATEs do it by hand.
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    // Membership changes bump the version through the member count UPDATE that accompanies them.
+    @OptimisticLock(excluded = true)
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "project_user",
             joinColumns = @JoinColumn(name = "project_id"),
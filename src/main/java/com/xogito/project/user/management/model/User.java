@@ -8,8 +8,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Getter
@@ -33,7 +36,36 @@ public class User {
     @Column(unique = true, name = "email")
     private String email;
 
+    // Normalized copies of the email for indexed prefix and domain search.
+    @JsonIgnore
+    @Column(name = "email_lower")
+    private String emailLower;
+
+    @JsonIgnore
+    @Column(name = "email_domain")
+    private String emailDomain;
+
+    // Incremented by every change to the user; patchUser in UserRepository does it by hand.
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    @OptimisticLock(excluded = true)
     @ManyToMany(mappedBy = "assignedUsers", fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Project> assignedProjects;
+
+    @PrePersist
+    @PreUpdate
+    public void normalizeEmail() {
+        if (email == null) {
+            emailLower = null;
+            emailDomain = null;
+            return;
+        }
+        emailLower = email.toLowerCase(Locale.ROOT);
+        emailDomain = emailLower.substring(emailLower.lastIndexOf('@') + 1);
+    }
 }
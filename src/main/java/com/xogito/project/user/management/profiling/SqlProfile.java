@@ -0,0 +1,37 @@
+package com.xogito.project.user.management.profiling;
+
+import lombok.Getter;
+
+/**
+ * Statement count and time accumulated by the current request thread.
+ */
+@Getter
+public final class SqlProfile {
+    private static final ThreadLocal<SqlProfile> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long elapsedMillis;
+
+    public static SqlProfile begin() {
+        SqlProfile profile = new SqlProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    public static SqlProfile current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void record(int statementCount, long millis) {
+        statements += statementCount;
+        elapsedMillis += millis;
+    }
+
+    public String toHeaderValue() {
+        return "count=" + statements + "; time=" + elapsedMillis + "ms";
+    }
+}
@@ -0,0 +1,26 @@
+package com.xogito.project.user.management.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link SqlProfile} for the duration of each request.
+ */
+public class SqlProfileFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlProfile.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlProfile.end();
+        }
+    }
+}
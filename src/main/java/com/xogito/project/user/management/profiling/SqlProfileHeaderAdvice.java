@@ -0,0 +1,37 @@
+package com.xogito.project.user.management.profiling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds {@code X-SQL-Profile} right before the body is written, when all of the request's SQL has run.
+ */
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class SqlProfileHeaderAdvice implements ResponseBodyAdvice<Object> {
+    public static final String HEADER = "X-SQL-Profile";
+
+    private final SqlProfileProperties properties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isEnabled() && properties.isResponseHeader();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlProfile profile = SqlProfile.current();
+        if (profile != null) {
+            response.getHeaders().set(HEADER, profile.toHeaderValue());
+        }
+        return body;
+    }
+}
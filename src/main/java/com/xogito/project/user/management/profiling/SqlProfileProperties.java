@@ -0,0 +1,21 @@
+package com.xogito.project.user.management.profiling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sql-profile")
+public class SqlProfileProperties {
+    /** Wrap the DataSource and profile statements at all. */
+    private boolean enabled = true;
+    /** Statements at or above this latency are always logged. */
+    private Duration slowThreshold = Duration.ofMillis(200);
+    /** Fraction (0..1) of faster statements that are logged as well. */
+    private double sampleRate = 0.0;
+    /** Add an X-SQL-Profile header with the statement count and time of the current request. */
+    private boolean responseHeader = false;
+}
@@ -0,0 +1,105 @@
+package com.xogito.project.user.management.profiling;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records every statement into the request's {@link SqlProfile} and logs slow or sampled ones to the
+ * {@code sql.profile} logger, with bind-parameter types (never values) and the originating service method.
+ */
+public class SqlProfilingListener implements QueryExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger("sql.profile");
+    private static final String SERVICE_PACKAGE = "com.xogito.project.user.management.service.impl.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final SqlProfileProperties properties;
+
+    public SqlProfilingListener(SqlProfileProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        SqlProfile profile = SqlProfile.current();
+        if (profile != null) {
+            profile.record(queryInfoList.size(), elapsed);
+        }
+
+        boolean slow = elapsed >= properties.getSlowThreshold().toMillis();
+        if (slow && log.isWarnEnabled()) {
+            log.warn(describe("slow-sql", execInfo, queryInfoList));
+        } else if (!slow && properties.getSampleRate() > 0 && log.isInfoEnabled()
+                && ThreadLocalRandom.current().nextDouble() < properties.getSampleRate()) {
+            log.info(describe("sampled-sql", execInfo, queryInfoList));
+        }
+    }
+
+    private String describe(String kind, ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StringBuilder message = new StringBuilder(kind)
+                .append(" elapsedMs=").append(execInfo.getElapsedTime())
+                .append(" success=").append(execInfo.isSuccess())
+                .append(" origin=").append(origin());
+        if (execInfo.isBatch()) {
+            message.append(" batchSize=").append(execInfo.getBatchSize());
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            message.append(" sql=\"").append(queryInfo.getQuery()).append('"');
+            List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+            if (!parametersList.isEmpty()) {
+                message.append(" params=").append(shapeOf(parametersList.get(0)));
+            }
+        }
+        return message.toString();
+    }
+
+    static String shapeOf(List<ParameterSetOperation> parameters) {
+        StringJoiner shape = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation parameter : parameters) {
+            Object[] args = parameter.getArgs();
+            Object value = args.length > 1 ? args[1] : null;
+            if (value == null || "setNull".equals(parameter.getMethod().getName())) {
+                shape.add("null");
+            } else if (value instanceof byte[] bytes) {
+                shape.add("byte[" + bytes.length + "]");
+            } else {
+                shape.add(value.getClass().getSimpleName());
+            }
+        }
+        return shape.toString();
+    }
+
+    static String origin() {
+        Optional<String> origin = STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(SERVICE_PACKAGE) && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + methodName(frame.getMethodName())));
+        return origin.orElse("unknown");
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    // Lambdas run by LookupCoalescer show up as lambda$findProjectById$0.
+    private static String methodName(String methodName) {
+        if (methodName.startsWith("lambda$")) {
+            int end = methodName.indexOf('$', "lambda$".length());
+            return methodName.substring("lambda$".length(), end < 0 ? methodName.length() : end);
+        }
+        return methodName;
+    }
+}
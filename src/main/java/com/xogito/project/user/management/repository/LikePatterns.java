@@ -0,0 +1,15 @@
+package com.xogito.project.user.management.repository;
+
+/**
+ * Turns user input into {@code LIKE} patterns in which {@code %} and {@code _} match only themselves. The
+ * escape character is the backslash, MySQL's default, so native queries need no {@code ESCAPE} clause.
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    public static String prefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,13 @@
+package com.xogito.project.user.management.repository;
+
+import com.xogito.project.user.management.model.Project;
+import com.xogito.project.user.management.support.Fieldset;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProjectFieldsetRepository {
+    List<Map<String, Object>> findFields(Specification<Project> filter, Fieldset fields, Pageable pageable);
+}
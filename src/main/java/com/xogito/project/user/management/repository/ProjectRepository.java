@@ -1,18 +1,156 @@
 package com.xogito.project.user.management.repository;
 
+import com.xogito.project.user.management.dto.UserDTO;
 import com.xogito.project.user.management.model.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, UUID> {
+public interface ProjectRepository extends JpaRepository<Project, UUID>, ProjectFieldsetRepository {
 
     @Query("SELECT p FROM Project p WHERE p.name LIKE ?1")
     Page<Project> searchByName(String name, Pageable pageable);
 
-}
\ No newline at end of file
+    @Query("SELECT new com.xogito.project.user.management.dto.UserDTO(u.Id, u.name, u.email) "
+            + "FROM Project p JOIN p.assignedUsers u WHERE p.Id = ?1 ORDER BY u.Id")
+    List<UserDTO> findAssignedUsers(UUID projectId, Pageable pageable);
+
+    List<Project> findAllBy(Pageable pageable);
+
+    @Query("SELECT new com.xogito.project.user.management.dto.UserDTO(u.Id, u.name, u.email) "
+            + "FROM Project p JOIN p.assignedUsers u WHERE p.Id IN ?1")
+    List<UserDTO> findAssignedUsersOfProjects(List<UUID> projectIds, Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO projects (id, name, description) VALUES (?1, ?2, ?3)", nativeQuery = true)
+    int insertProject(UUID id, String name, String description);
+
+    @Modifying
+    @Query("UPDATE Project p SET p.memberCount = p.memberCount + ?2, p.version = p.version + 1 WHERE p.Id = ?1")
+    int adjustMemberCount(UUID projectId, int delta);
+
+    // Null parameters keep the column; MySQL leaves unchanged columns out of the row change.
+    @Modifying
+    @Query("UPDATE Project p SET p.name = COALESCE(?2, p.name), p.description = COALESCE(?3, p.description), "
+            + "p.version = p.version + 1 WHERE p.Id = ?1")
+    int patchProject(UUID id, String name, String description);
+
+    @Query("SELECT p.version FROM Project p WHERE p.Id = ?1")
+    Optional<Long> findVersionById(UUID id);
+
+    @Query("SELECT p.Id FROM Project p WHERE p.Id IN ?1")
+    List<UUID> findExistingIds(Collection<UUID> ids);
+
+    @Query("SELECT p.Id, u.Id FROM Project p JOIN p.assignedUsers u WHERE p.Id IN ?1 AND u.Id IN ?2")
+    List<Object[]> findMemberships(Collection<UUID> projectIds, Collection<UUID> userIds);
+
+    @Modifying
+    @Query(value = "UPDATE projects p "
+            + "LEFT JOIN (SELECT project_id, COUNT(*) AS members FROM project_user GROUP BY project_id) pu "
+            + "ON pu.project_id = p.id "
+            + "SET p.member_count = COALESCE(pu.members, 0), p.version = p.version + 1 "
+            + "WHERE p.member_count <> COALESCE(pu.members, 0)", nativeQuery = true)
+    int reconcileMemberCounts();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT p.Id, p.memberCount FROM Project p")
+    Stream<Object[]> streamMemberCounts();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(value = "SELECT project_id, user_id FROM project_user", nativeQuery = true)
+    Stream<Object[]> streamMemberships();
+
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END "
+            + "FROM Project p JOIN p.assignedUsers u WHERE p.Id = ?1 AND u.Id = ?2")
+    boolean isMember(UUID projectId, UUID userId);
+
+    @Query("SELECT p.Id FROM Project p JOIN p.assignedUsers a JOIN p.assignedUsers b WHERE a.Id = ?1 AND b.Id = ?2")
+    List<UUID> findCommonProjectIds(UUID userId, UUID otherUserId);
+
+    @Query("SELECT DISTINCT u.Id FROM Project p JOIN p.assignedUsers m JOIN p.assignedUsers u WHERE m.Id = ?1 AND u.Id <> ?1")
+    List<UUID> findCollaboratorIds(UUID userId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO project_user (project_id, user_id) "
+            + "SELECT ?2, s.user_id FROM project_user s WHERE s.project_id = ?1 "
+            + "AND NOT EXISTS (SELECT 1 FROM project_user t WHERE t.project_id = ?2 AND t.user_id = s.user_id)",
+            nativeQuery = true)
+    int copyMemberships(UUID sourceProjectId, UUID targetProjectId);
+
+    @Modifying
+    @Query(value = "INSERT INTO project_user (project_id, user_id) "
+            + "SELECT ?2, s.user_id FROM project_user s WHERE s.project_id = ?1 AND s.user_id IN (?3) "
+            + "AND NOT EXISTS (SELECT 1 FROM project_user t WHERE t.project_id = ?2 AND t.user_id = s.user_id)",
+            nativeQuery = true)
+    int copyMembershipsOfUsers(UUID sourceProjectId, UUID targetProjectId, List<UUID> userIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO project_user (project_id, user_id) "
+            + "SELECT ?2, s.user_id FROM project_user s JOIN users u ON u.id = s.user_id "
+            + "WHERE s.project_id = ?1 AND u.email LIKE ?3 "
+            + "AND NOT EXISTS (SELECT 1 FROM project_user t WHERE t.project_id = ?2 AND t.user_id = s.user_id)",
+            nativeQuery = true)
+    int copyMembershipsOfUserEmailLike(UUID sourceProjectId, UUID targetProjectId, String emailLike);
+
+    @Query("SELECT u.Id FROM Project p JOIN p.assignedUsers u WHERE p.Id = ?1")
+    List<UUID> findMemberIds(UUID projectId);
+
+    @Query("SELECT u.Id FROM Project p JOIN p.assignedUsers u WHERE p.Id IN ?1")
+    List<UUID> findMemberIdsOfProjects(Collection<UUID> projectIds);
+
+    @Query("SELECT u.Id FROM Project p JOIN p.assignedUsers u WHERE p.Id = ?1 AND u.Id IN ?2")
+    List<UUID> findMemberIdsOfUsers(UUID projectId, List<UUID> userIds);
+
+    @Query("SELECT u.Id FROM Project p JOIN p.assignedUsers u WHERE p.Id = ?1 AND u.email LIKE ?2")
+    List<UUID> findMemberIdsByEmailLike(UUID projectId, String emailLike);
+
+    @Modifying
+    @Query(value = "INSERT INTO project_user (project_id, user_id) "
+            + "SELECT ?1, u.id FROM users u WHERE u.id IN (?2) "
+            + "AND NOT EXISTS (SELECT 1 FROM project_user t WHERE t.project_id = ?1 AND t.user_id = u.id)",
+            nativeQuery = true)
+    int insertMembershipsIfAbsent(UUID projectId, List<UUID> userIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_user WHERE project_id = ?1", nativeQuery = true)
+    int deleteMemberships(UUID projectId);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_user WHERE project_id = ?1 AND user_id IN (?2)", nativeQuery = true)
+    int deleteMembershipsOfUsers(UUID projectId, List<UUID> userIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_user WHERE project_id = ?1 "
+            + "AND user_id IN (SELECT id FROM users WHERE email LIKE ?2)", nativeQuery = true)
+    int deleteMembershipsOfUserEmailLike(UUID projectId, String emailLike);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_user WHERE project_id IN (?1)", nativeQuery = true)
+    int deleteMembershipsByProjectIds(List<UUID> projectIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_user WHERE project_id IN (SELECT id FROM projects WHERE name LIKE ?1)", nativeQuery = true)
+    int deleteMembershipsByProjectNameLike(String nameLike);
+
+    @Modifying
+    @Query("DELETE FROM Project p WHERE p.Id IN ?1")
+    int deleteByIds(List<UUID> projectIds);
+
+    @Modifying
+    @Query("DELETE FROM Project p WHERE p.name LIKE ?1")
+    int deleteByNameLike(String nameLike);
+
+}
@@ -0,0 +1,23 @@
+package com.xogito.project.user.management.repository;
+
+import com.xogito.project.user.management.model.Project;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+
+/**
+ * Filters for {@link ProjectRepository#findFields}, mirroring the lookups the full-entity queries use.
+ */
+public final class ProjectSpecifications {
+
+    private ProjectSpecifications() {
+    }
+
+    public static Specification<Project> hasId(UUID id) {
+        return (root, query, cb) -> cb.equal(root.get("Id"), id);
+    }
+
+    public static Specification<Project> nameLike(String pattern) {
+        return (root, query, cb) -> cb.like(root.get("name"), pattern);
+    }
+}
@@ -0,0 +1,13 @@
+package com.xogito.project.user.management.repository;
+
+import com.xogito.project.user.management.model.User;
+import com.xogito.project.user.management.support.Fieldset;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+public interface UserFieldsetRepository {
+    List<Map<String, Object>> findFields(Specification<User> filter, Fieldset fields, Pageable pageable);
+}
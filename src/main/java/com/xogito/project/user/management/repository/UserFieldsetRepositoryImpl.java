@@ -0,0 +1,21 @@
+package com.xogito.project.user.management.repository;
+
+import com.xogito.project.user.management.model.User;
+import com.xogito.project.user.management.support.Fieldset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+class UserFieldsetRepositoryImpl implements UserFieldsetRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Specification<User> filter, Fieldset fields, Pageable pageable) {
+        return FieldsetQuery.select(entityManager, User.class, filter, fields, pageable);
+    }
+}
@@ -1,19 +1,89 @@
 package com.xogito.project.user.management.repository;
 
 import com.xogito.project.user.management.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-    boolean existsByEmail(String email);
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User>,
+        UserFieldsetRepository {
+    // Null parameters keep the column; MySQL leaves unchanged columns out of the row change.
+    @Modifying
+    @Query("UPDATE User u SET u.name = COALESCE(?2, u.name), u.email = COALESCE(?3, u.email), "
+            + "u.emailLower = COALESCE(?4, u.emailLower), u.emailDomain = COALESCE(?5, u.emailDomain), "
+            + "u.version = u.version + 1 WHERE u.Id = ?1")
+    int patchUser(UUID id, String name, String email, String emailLower, String emailDomain);
+
+    @Query("SELECT u.version FROM User u WHERE u.Id = ?1")
+    Optional<Long> findVersionById(UUID id);
+
+    @Query("SELECT u.Id FROM User u WHERE u.Id IN ?1")
+    List<UUID> findExistingIds(Collection<UUID> ids);
+
+    @Query("SELECT u.Id FROM User u WHERE u.email LIKE ?1")
+    List<UUID> findIdsByEmailLike(String emailLike);
+
+    @Query("SELECT p.Id FROM User u JOIN u.assignedProjects p WHERE u.Id IN ?1")
+    List<UUID> findProjectIdsOfUsers(Collection<UUID> userIds);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN ?1")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Modifying
+    @Query(value = "INSERT INTO users (id, name, email, email_lower, email_domain) VALUES (?1, ?2, ?3, ?4, ?5)",
+            nativeQuery = true)
+    int insertUser(UUID id, String name, String email, String emailLower, String emailDomain);
 
     @Query("SELECT u FROM User u WHERE u.name = ?1 AND u.email = ?2")
     Page<User> searchUsersByNameAndEmail(String name, String email, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT u.Id, COUNT(p) FROM User u LEFT JOIN u.assignedProjects p GROUP BY u.Id")
+    Stream<Object[]> streamAssignmentCounts();
+
+    @Modifying
+    @Query(value = "UPDATE projects p "
+            + "JOIN (SELECT project_id, COUNT(*) AS members FROM project_user WHERE user_id IN (?1) GROUP BY project_id) pu "
+            + "ON pu.project_id = p.id "
+            + "SET p.member_count = p.member_count - pu.members, p.version = p.version + 1", nativeQuery = true)
+    int releaseMemberCountsByUserIds(List<UUID> userIds);
+
+    @Modifying
+    @Query(value = "UPDATE projects p "
+            + "JOIN (SELECT pu.project_id, COUNT(*) AS members FROM project_user pu "
+            + "JOIN users u ON u.id = pu.user_id WHERE u.email LIKE ?1 GROUP BY pu.project_id) pu "
+            + "ON pu.project_id = p.id "
+            + "SET p.member_count = p.member_count - pu.members, p.version = p.version + 1", nativeQuery = true)
+    int releaseMemberCountsByUserEmailLike(String emailLike);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_user WHERE user_id IN (?1)", nativeQuery = true)
+    int deleteMembershipsByUserIds(List<UUID> userIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_user WHERE user_id IN (SELECT id FROM users WHERE email LIKE ?1)", nativeQuery = true)
+    int deleteMembershipsByUserEmailLike(String emailLike);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.Id IN ?1")
+    int deleteByIds(List<UUID> userIds);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.email LIKE ?1")
+    int deleteByEmailLike(String emailLike);
+
 }
@@ -0,0 +1,37 @@
+package com.xogito.project.user.management.repository;
+
+import com.xogito.project.user.management.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Building blocks for {@link UserRepository} searches. Only the filters that are actually set are added
+ * to the query, so MySQL can pick the matching index instead of evaluating {@code :param IS NULL OR ...}.
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> hasId(UUID id) {
+        return (root, query, cb) -> cb.equal(root.get("Id"), id);
+    }
+
+    public static Specification<User> nameAndEmailEqual(String name, String email) {
+        return (root, query, cb) -> cb.and(cb.equal(root.get("name"), name), cb.equal(root.get("email"), email));
+    }
+
+    public static Specification<User> nameStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("name"), LikePatterns.prefix(prefix), '\\');
+    }
+
+    public static Specification<User> emailStartsWithIgnoreCase(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("emailLower"), LikePatterns.prefix(prefix.toLowerCase(Locale.ROOT)), '\\');
+    }
+
+    public static Specification<User> emailDomain(String domain) {
+        return (root, query, cb) -> cb.equal(root.get("emailDomain"), domain.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,11 @@
+package com.xogito.project.user.management.service;
+
+import com.xogito.project.user.management.dto.BatchOperationDTO;
+import com.xogito.project.user.management.dto.BatchOperationResultDTO;
+
+import java.util.List;
+
+public interface BatchService {
+
+    List<BatchOperationResultDTO> execute(List<BatchOperationDTO> operations);
+}
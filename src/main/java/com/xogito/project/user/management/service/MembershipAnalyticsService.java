@@ -0,0 +1,9 @@
+package com.xogito.project.user.management.service;
+
+import com.xogito.project.user.management.dto.MembershipAnalyticsDTO;
+
+public interface MembershipAnalyticsService {
+    MembershipAnalyticsDTO getAnalytics(int top);
+
+    void recompute();
+}
@@ -0,0 +1,16 @@
+package com.xogito.project.user.management.service;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface MembershipService {
+    boolean isMember(UUID projectId, UUID userId);
+
+    List<UUID> findCommonProjects(UUID userId, UUID otherUserId);
+
+    List<UUID> findCollaborators(UUID userId, int limit);
+
+    void rebuild();
+
+    boolean isReady();
+}
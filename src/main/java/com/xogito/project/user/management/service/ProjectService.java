@@ -1,26 +1,53 @@
 package com.xogito.project.user.management.service;
 
+import com.xogito.project.user.management.dto.BulkDeleteRequestDTO;
+import com.xogito.project.user.management.dto.BulkDeleteResultDTO;
+import com.xogito.project.user.management.dto.MemberTransferRequestDTO;
+import com.xogito.project.user.management.dto.MemberTransferResultDTO;
 import com.xogito.project.user.management.dto.ProjectDTO;
+import com.xogito.project.user.management.dto.ProjectDetailsDTO;
+import com.xogito.project.user.management.dto.ProjectPatchDTO;
 import com.xogito.project.user.management.model.Project;
-import org.springframework.http.ResponseEntity;
+import com.xogito.project.user.management.support.Fieldset;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface ProjectService {
     Project findProjectById(UUID id);
 
+    Project readBackProject(UUID id);
+
+    long getProjectVersion(UUID id);
+
+    ProjectDetailsDTO getProjectDetails(UUID id, boolean expandUsers, int userLimit);
+
+    Map<String, Object> getProjectFields(UUID id, Fieldset fields, boolean expandUsers, int userLimit);
+
     Project createProject(ProjectDTO project);
 
     Project updateProject(UUID id, ProjectDTO project);
 
-    ResponseEntity<Object> deleteProject(UUID id);
+    void patchProject(UUID id, ProjectPatchDTO patch);
+
+    void deleteProject(UUID id);
+
+    BulkDeleteResultDTO deleteProjects(BulkDeleteRequestDTO request);
 
     List<Project> searchProjectsByName(String query,int pageNumber, int pageSize);
 
-    ResponseEntity<Object> assignUserToProject(UUID projectId, UUID userId);
+    List<Map<String, Object>> searchProjectFieldsByName(String query, int pageNumber, int pageSize, Fieldset fields);
+
+    void assignUserToProject(UUID projectId, UUID userId);
 
     List<ProjectDTO> getAllProjects();
 
+    List<Map<String, Object>> getAllProjectFields(Fieldset fields);
+
     void removeUserFromProject(UUID projectId, UUID userId);
+
+    MemberTransferResultDTO copyMembers(UUID sourceProjectId, UUID targetProjectId, MemberTransferRequestDTO request);
+
+    MemberTransferResultDTO moveMembers(UUID sourceProjectId, UUID targetProjectId, MemberTransferRequestDTO request);
 }
@@ -0,0 +1,10 @@
+package com.xogito.project.user.management.service;
+
+import com.xogito.project.user.management.dto.SnapshotSummaryDTO;
+
+public interface SnapshotService {
+
+    SnapshotSummaryDTO exportSnapshot(String name);
+
+    SnapshotSummaryDTO importSnapshot(String name);
+}
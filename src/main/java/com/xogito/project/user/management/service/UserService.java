@@ -1,20 +1,42 @@
 package com.xogito.project.user.management.service;
 
+import com.xogito.project.user.management.dto.BulkDeleteRequestDTO;
+import com.xogito.project.user.management.dto.BulkDeleteResultDTO;
+import com.xogito.project.user.management.dto.UserPatchDTO;
 import com.xogito.project.user.management.model.User;
-import org.springframework.http.ResponseEntity;
+import com.xogito.project.user.management.support.Fieldset;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface UserService {
 
     User findUserById(UUID id);
 
+    User readBackUser(UUID id);
+
+    long getUserVersion(UUID id);
+
     User createUser(User user);
 
     User updateUser(UUID id, User user);
 
-    ResponseEntity<Object> deleteUser(UUID id);
+    void patchUser(UUID id, UserPatchDTO patch);
+
+    void deleteUser(UUID id);
+
+    BulkDeleteResultDTO deleteUsers(BulkDeleteRequestDTO request);
 
     List<User> searchUsersByNameAndEmail(String name, String email, int pageNumber, int pageSize);
+
+    List<User> searchUsers(String namePrefix, String emailPrefix, String emailDomain, int pageNumber, int pageSize);
+
+    Map<String, Object> findUserFieldsById(UUID id, Fieldset fields);
+
+    List<Map<String, Object>> searchUserFieldsByNameAndEmail(String name, String email, int pageNumber, int pageSize,
+                                                             Fieldset fields);
+
+    List<Map<String, Object>> searchUserFields(String namePrefix, String emailPrefix, String emailDomain,
+                                               int pageNumber, int pageSize, Fieldset fields);
 }
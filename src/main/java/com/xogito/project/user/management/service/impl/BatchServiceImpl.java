@@ -0,0 +1,292 @@
+package com.xogito.project.user.management.service.impl;
+
+import com.xogito.project.user.management.dto.BatchOperationDTO;
+import com.xogito.project.user.management.dto.BatchOperationResultDTO;
+import com.xogito.project.user.management.dto.BatchOperationResultDTO.Status;
+import com.xogito.project.user.management.event.MembershipChangedEvent;
+import com.xogito.project.user.management.exception.ConflictException;
+import com.xogito.project.user.management.model.User;
+import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.repository.UserRepository;
+import com.xogito.project.user.management.service.BatchService;
+import com.xogito.project.user.management.sharding.Shards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs a batch of user and project creates, assigns and removes in one transaction.
+ * <p>
+ * Everything the batch refers to is loaded up front in at most four queries. The operations are then checked
+ * in order against that state, each seeing the effect of the ones before it, with the same rules as
+ * {@code UserService} and {@code ProjectService}. Only once every operation passed are the writes sent, as one
+ * JDBC batch per statement: new users, new projects, the net membership deletes and inserts, and the
+ * member-count change of each touched project. An invalid operation rejects the whole batch before anything
+ * is written.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchServiceImpl implements BatchService {
+    private static final int MAX_OPERATIONS = 1000;
+    private static final String REF_PREFIX = "$";
+
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Shards shards;
+
+    @Override
+    @Transactional
+    public List<BatchOperationResultDTO> execute(List<BatchOperationDTO> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation is required");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_OPERATIONS + " operations are allowed per batch");
+        }
+        if (shards.isSharded()) {
+            // Users are written to every shard and projects to their own; that is not one transaction.
+            throw new ConflictException("Batches are not supported with app.sharding.enabled");
+        }
+        Batch batch = load(operations);
+        List<BatchOperationResultDTO> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            BatchOperationDTO operation = operations.get(index);
+            try {
+                results.add(batch.apply(index, operation));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Operation " + index + ": " + e.getMessage(), e);
+            }
+        }
+        write(batch);
+        return results;
+    }
+
+    private Batch load(List<BatchOperationDTO> operations) {
+        Set<UUID> userIds = new HashSet<>();
+        Set<UUID> projectIds = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int index = 0; index < operations.size(); index++) {
+            BatchOperationDTO operation = operations.get(index);
+            try {
+                addIfLiteral(operation.getUserId(), userIds);
+                addIfLiteral(operation.getProjectId(), projectIds);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Operation " + index + ": " + e.getMessage(), e);
+            }
+            if (operation.getOp() == BatchOperationDTO.Type.CREATE_USER && operation.getEmail() != null) {
+                emails.add(operation.getEmail().toLowerCase(Locale.ROOT));
+            }
+        }
+        Batch batch = new Batch();
+        if (!userIds.isEmpty()) {
+            batch.users.addAll(userRepository.findExistingIds(userIds));
+        }
+        if (!projectIds.isEmpty()) {
+            batch.projects.addAll(projectRepository.findExistingIds(projectIds));
+        }
+        if (!emails.isEmpty()) {
+            userRepository.findExistingEmails(emails).forEach(email -> batch.emails.add(email.toLowerCase(Locale.ROOT)));
+        }
+        if (!userIds.isEmpty() && !projectIds.isEmpty()) {
+            for (Object[] row : projectRepository.findMemberships(projectIds, userIds)) {
+                batch.initialMemberships.add(new Membership((UUID) row[0], (UUID) row[1]));
+            }
+        }
+        batch.memberships.addAll(batch.initialMemberships);
+        return batch;
+    }
+
+    private void write(Batch batch) {
+        if (!batch.newUsers.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, email_lower, email_domain) VALUES (?, ?, ?, ?, ?)",
+                    batch.newUsers);
+        }
+        if (!batch.newProjects.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO projects (id, name, description) VALUES (?, ?, ?)", batch.newProjects);
+        }
+
+        Set<Membership> removed = new LinkedHashSet<>(batch.initialMemberships);
+        removed.removeAll(batch.memberships);
+        Set<Membership> added = new LinkedHashSet<>(batch.memberships);
+        added.removeAll(batch.initialMemberships);
+        Map<UUID, Integer> memberCountDeltas = new LinkedHashMap<>();
+        // Count only the rows the statements actually changed: a concurrent request may have removed a membership
+        // this batch read at load time, and its delta must not be applied twice
+        if (!removed.isEmpty()) {
+            removed = changed(removed,
+                    jdbcTemplate.batchUpdate("DELETE FROM project_user WHERE project_id = ? AND user_id = ?", rows(removed)));
+            removed.forEach(membership -> memberCountDeltas.merge(membership.projectId(), -1, Integer::sum));
+        }
+        if (!added.isEmpty()) {
+            added = changed(added,
+                    jdbcTemplate.batchUpdate("INSERT INTO project_user (project_id, user_id) VALUES (?, ?)", rows(added)));
+            added.forEach(membership -> memberCountDeltas.merge(membership.projectId(), 1, Integer::sum));
+        }
+        List<Object[]> memberCounts = new ArrayList<>();
+        memberCountDeltas.forEach((projectId, delta) -> {
+            if (delta != 0) {
+                memberCounts.add(new Object[]{delta, toBytes(projectId)});
+            }
+        });
+        if (!memberCounts.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE projects SET member_count = member_count + ?, version = version + 1 WHERE id = ?", memberCounts);
+        }
+
+        removed.forEach(membership -> eventPublisher.publishEvent(
+                new MembershipChangedEvent(membership.projectId(), membership.userId(), false)));
+        added.forEach(membership -> eventPublisher.publishEvent(
+                new MembershipChangedEvent(membership.projectId(), membership.userId(), true)));
+    }
+
+    private static void addIfLiteral(String id, Set<UUID> ids) {
+        if (id != null && !id.startsWith(REF_PREFIX)) {
+            ids.add(UUID.fromString(id));
+        }
+    }
+
+    /**
+     * Keeps the memberships whose statement affected a row. {@link Statement#SUCCESS_NO_INFO}, which the driver
+     * reports for rewritten batches, counts as affected.
+     */
+    private static Set<Membership> changed(Set<Membership> memberships, int[] counts) {
+        Set<Membership> changed = new LinkedHashSet<>();
+        int index = 0;
+        for (Membership membership : memberships) {
+            int count = counts[index++];
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                changed.add(membership);
+            }
+        }
+        return changed;
+    }
+
+    private static List<Object[]> rows(Set<Membership> memberships) {
+        List<Object[]> rows = new ArrayList<>(memberships.size());
+        for (Membership membership : memberships) {
+            rows.add(new Object[]{toBytes(membership.projectId()), toBytes(membership.userId())});
+        }
+        return rows;
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * The state a batch is checked against: existing rows it refers to plus what earlier operations created.
+     */
+    private static final class Batch {
+        private final Map<String, UUID> refs = new HashMap<>();
+        private final Set<UUID> users = new HashSet<>();
+        private final Set<UUID> projects = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Set<Membership> initialMemberships = new HashSet<>();
+        private final Set<Membership> memberships = new HashSet<>();
+        private final List<Object[]> newUsers = new ArrayList<>();
+        private final List<Object[]> newProjects = new ArrayList<>();
+
+        private BatchOperationResultDTO apply(int index, BatchOperationDTO operation) {
+            if (operation.getOp() == null) {
+                throw new IllegalArgumentException("op is required");
+            }
+            return switch (operation.getOp()) {
+                case CREATE_USER -> {
+                    if (isBlank(operation.getName())) {
+                        throw new IllegalArgumentException("Name is required");
+                    }
+                    if (isBlank(operation.getEmail())) {
+                        throw new IllegalArgumentException("Email is required");
+                    }
+                    // uk_users_email is case-insensitive, so compare the lower-cased form the index sees
+                    if (!emails.add(operation.getEmail().toLowerCase(Locale.ROOT))) {
+                        throw new IllegalArgumentException("Email already exists");
+                    }
+                    UUID id = register(operation.getRef(), users);
+                    User user = new User();
+                    user.setEmail(operation.getEmail());
+                    user.normalizeEmail();
+                    newUsers.add(new Object[]{toBytes(id), operation.getName(), operation.getEmail(),
+                            user.getEmailLower(), user.getEmailDomain()});
+                    yield result(index, operation, id, Status.CREATED);
+                }
+                case CREATE_PROJECT -> {
+                    if (isBlank(operation.getName())) {
+                        throw new IllegalArgumentException("Name is required");
+                    }
+                    UUID id = register(operation.getRef(), projects);
+                    newProjects.add(new Object[]{toBytes(id), operation.getName(), operation.getDescription()});
+                    yield result(index, operation, id, Status.CREATED);
+                }
+                case ASSIGN_USER -> {
+                    Membership membership = membership(operation);
+                    if (!memberships.add(membership)) {
+                        throw new IllegalArgumentException("User already assigned to the project");
+                    }
+                    yield result(index, operation, null, Status.ASSIGNED);
+                }
+                case REMOVE_USER -> {
+                    Membership membership = membership(operation);
+                    yield result(index, operation, null,
+                            memberships.remove(membership) ? Status.REMOVED : Status.NOT_ASSIGNED);
+                }
+            };
+        }
+
+        private UUID register(String ref, Set<UUID> known) {
+            UUID id = UUID.randomUUID();
+            if (ref != null && refs.putIfAbsent(ref, id) != null) {
+                throw new IllegalArgumentException("Duplicate ref: " + ref);
+            }
+            known.add(id);
+            return id;
+        }
+
+        private Membership membership(BatchOperationDTO operation) {
+            UUID projectId = resolve(operation.getProjectId(), projects, "Project");
+            UUID userId = resolve(operation.getUserId(), users, "User");
+            return new Membership(projectId, userId);
+        }
+
+        private UUID resolve(String value, Set<UUID> known, String kind) {
+            if (value == null) {
+                throw new IllegalArgumentException(kind + " is required");
+            }
+            UUID id = value.startsWith(REF_PREFIX) ? refs.get(value.substring(REF_PREFIX.length())) : UUID.fromString(value);
+            if (id == null || !known.contains(id)) {
+                throw new IllegalArgumentException(kind + " not found with ID: " + value);
+            }
+            return id;
+        }
+
+        private static BatchOperationResultDTO result(int index, BatchOperationDTO operation, UUID id, Status status) {
+            return new BatchOperationResultDTO(index, operation.getOp(), operation.getRef(), id, status);
+        }
+    }
+
+    private record Membership(UUID projectId, UUID userId) {
+    }
+}
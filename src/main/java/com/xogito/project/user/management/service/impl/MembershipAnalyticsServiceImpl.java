@@ -0,0 +1,218 @@
+package com.xogito.project.user.management.service.impl;
+
+import com.xogito.project.user.management.dto.MembershipAnalyticsDTO;
+import com.xogito.project.user.management.dto.RankedEntryDTO;
+import com.xogito.project.user.management.event.MembershipBulkChangedEvent;
+import com.xogito.project.user.management.event.MembershipChangedEvent;
+import com.xogito.project.user.management.event.ProjectMembersChangedEvent;
+import com.xogito.project.user.management.event.ProjectsDeletedEvent;
+import com.xogito.project.user.management.event.UsersDeletedEvent;
+import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.repository.UserRepository;
+import com.xogito.project.user.management.service.MembershipAnalyticsService;
+import com.xogito.project.user.management.sharding.Shards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Keeps membership aggregates in memory so dashboard reads never touch the database.
+ * <p>
+ * The aggregates are first computed by the startup warm-up, then rebuilt from the database on a fixed
+ * schedule and adjusted in between by {@link MembershipChangedEvent}s, {@link ProjectMembersChangedEvent}s and
+ * the deletion events, which carry the memberships that went. Only set-based changes of unknown scope trigger an asynchronous rebuild; triggers
+ * arriving before a rebuild starts reading share it, and rebuilds run one at a time so the newest one is
+ * swapped in last.
+ * Users and projects created since the last rebuild only show up once they gain or lose a membership,
+ * or after the next rebuild.
+ * <p>
+ * Each project lives on one shard, while a user's memberships are spread over all of them, so per-user counts
+ * are summed across shards.
+ */
+@Service
+@RequiredArgsConstructor
+public class MembershipAnalyticsServiceImpl implements MembershipAnalyticsService {
+    private static final int[] SIZE_BUCKET_UPPER_BOUNDS = {0, 1, 5, 10, 50, 100, 500, 1000};
+
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final Shards shards;
+
+    private final Object recomputeLock = new Object();
+    private final AtomicBoolean recomputeQueued = new AtomicBoolean();
+    private Tally projects = new Tally();
+    private Tally users = new Tally();
+    private Instant computedAt;
+
+    @Override
+    public synchronized MembershipAnalyticsDTO getAnalytics(int top) {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < projects.histogram.length; bucket++) {
+            histogram.put(bucketLabel(bucket), projects.histogram[bucket]);
+        }
+        return new MembershipAnalyticsDTO(projects.top(top), users.top(top), histogram,
+                projects.histogram[0], users.histogram[0], computedAt);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Scheduled(initialDelayString = "${app.analytics.recompute-interval:PT15M}",
+            fixedDelayString = "${app.analytics.recompute-interval:PT15M}")
+    public void recompute() {
+        synchronized (recomputeLock) {
+            // Changes committed from here on are either read below or queue the next run.
+            recomputeQueued.set(false);
+            List<Map<UUID, Integer>> projectCounts = shards.onEveryShard(() -> countsOf(projectRepository.streamMemberCounts()));
+            List<Map<UUID, Integer>> userCounts = shards.onEveryShard(() -> countsOf(userRepository.streamAssignmentCounts()));
+
+            Tally freshProjects = new Tally();
+            projectCounts.forEach(counts -> counts.forEach(freshProjects::put));
+            Map<UUID, Integer> summedUsers = userCounts.get(0);
+            for (Map<UUID, Integer> counts : userCounts.subList(1, userCounts.size())) {
+                counts.forEach((id, count) -> summedUsers.merge(id, count, Integer::sum));
+            }
+            Tally freshUsers = new Tally();
+            summedUsers.forEach(freshUsers::put);
+            synchronized (this) {
+                projects = freshProjects;
+                users = freshUsers;
+                computedAt = Instant.now();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMembershipChanged(MembershipChangedEvent event) {
+        int delta = event.isAssigned() ? 1 : -1;
+        projects.adjust(event.getProjectId(), delta);
+        users.adjust(event.getUserId(), delta);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProjectMembersChanged(ProjectMembersChangedEvent event) {
+        projects.adjust(event.getProjectId(), event.getAddedUserIds().size() - event.getRemovedUserIds().size());
+        event.getAddedUserIds().forEach(userId -> users.adjust(userId, 1));
+        event.getRemovedUserIds().forEach(userId -> users.adjust(userId, -1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProjectsDeleted(ProjectsDeletedEvent event) {
+        event.getProjectIds().forEach(projects::remove);
+        event.getMemberIds().forEach(userId -> users.adjust(userId, -1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onUsersDeleted(UsersDeletedEvent event) {
+        event.getUserIds().forEach(users::remove);
+        event.getProjectIds().forEach(projectId -> projects.adjust(projectId, -1));
+    }
+
+    @Async
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(classes = MembershipBulkChangedEvent.class, fallbackExecution = true)
+    public void onMembershipBulkChanged() {
+        // A run that is queued but has not started reading will see this change as well.
+        if (recomputeQueued.compareAndSet(false, true)) {
+            recompute();
+        }
+    }
+
+    private static Map<UUID, Integer> countsOf(Stream<Object[]> rows) {
+        Map<UUID, Integer> counts = new HashMap<>();
+        try (rows) {
+            rows.forEach(row -> counts.put((UUID) row[0], ((Number) row[1]).intValue()));
+        }
+        return counts;
+    }
+
+    private static int bucketOf(int count) {
+        for (int bucket = 0; bucket < SIZE_BUCKET_UPPER_BOUNDS.length; bucket++) {
+            if (count <= SIZE_BUCKET_UPPER_BOUNDS[bucket]) {
+                return bucket;
+            }
+        }
+        return SIZE_BUCKET_UPPER_BOUNDS.length;
+    }
+
+    private static String bucketLabel(int bucket) {
+        if (bucket == SIZE_BUCKET_UPPER_BOUNDS.length) {
+            return (SIZE_BUCKET_UPPER_BOUNDS[bucket - 1] + 1) + "+";
+        }
+        int lower = bucket == 0 ? 0 : SIZE_BUCKET_UPPER_BOUNDS[bucket - 1] + 1;
+        int upper = SIZE_BUCKET_UPPER_BOUNDS[bucket];
+        return lower == upper ? String.valueOf(upper) : lower + "-" + upper;
+    }
+
+    /**
+     * Counts per id, plus a ranking of the non-zero ones and a size histogram, all kept in step.
+     */
+    private static final class Tally {
+        private static final Comparator<Ranked> RANKING = Comparator.comparingInt(Ranked::count).reversed()
+                .thenComparing(Ranked::id);
+
+        private final Map<UUID, Integer> counts = new HashMap<>();
+        private final NavigableSet<Ranked> ranking = new TreeSet<>(RANKING);
+        private final long[] histogram = new long[SIZE_BUCKET_UPPER_BOUNDS.length + 1];
+
+        private void put(UUID id, int count) {
+            counts.put(id, count);
+            histogram[bucketOf(count)]++;
+            if (count > 0) {
+                ranking.add(new Ranked(id, count));
+            }
+        }
+
+        private void remove(UUID id) {
+            Integer known = counts.remove(id);
+            if (known != null) {
+                histogram[bucketOf(known)]--;
+                if (known > 0) {
+                    ranking.remove(new Ranked(id, known));
+                }
+            }
+        }
+
+        private void adjust(UUID id, int delta) {
+            Integer known = counts.get(id);
+            int previous = known == null ? 0 : known;
+            if (known != null) {
+                histogram[bucketOf(previous)]--;
+                if (previous > 0) {
+                    ranking.remove(new Ranked(id, previous));
+                }
+            }
+            put(id, Math.max(0, previous + delta));
+        }
+
+        private List<RankedEntryDTO> top(int limit) {
+            List<RankedEntryDTO> top = new ArrayList<>(Math.min(limit, ranking.size()));
+            Iterator<Ranked> iterator = ranking.iterator();
+            while (top.size() < limit && iterator.hasNext()) {
+                Ranked ranked = iterator.next();
+                top.add(new RankedEntryDTO(ranked.id(), ranked.count()));
+            }
+            return top;
+        }
+    }
+
+    private record Ranked(UUID id, int count) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.xogito.project.user.management.service.impl;
+
+import com.xogito.project.user.management.event.MembershipBulkChangedEvent;
+import com.xogito.project.user.management.event.MembershipChangedEvent;
+import com.xogito.project.user.management.event.ProjectMembersChangedEvent;
+import com.xogito.project.user.management.event.ProjectsDeletedEvent;
+import com.xogito.project.user.management.event.UsersDeletedEvent;
+import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.service.MembershipService;
+import com.xogito.project.user.management.sharding.Shards;
+import com.xogito.project.user.management.support.MembershipGraph;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Answers membership, overlap and collaborator queries from an in-memory {@link MembershipGraph}.
+ * <p>
+ * The graph is loaded from {@code project_user} during startup warm-up and then kept current by membership and deletion events.
+ * Until the first load completes, queries fall back to the database, merging the answers of every shard.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MembershipServiceImpl implements MembershipService {
+    private static final int LOAD_BATCH_SIZE = 4096;
+
+    private final ProjectRepository projectRepository;
+    private final Shards shards;
+
+    private final Object changeLock = new Object();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final List<Consumer<MembershipGraph>> changesDuringRebuild = new ArrayList<>();
+    private volatile MembershipGraph graph = new MembershipGraph();
+    private volatile boolean ready;
+    private boolean rebuilding;
+
+    @Override
+    public boolean isMember(UUID projectId, UUID userId) {
+        return ready
+                ? graph.isMember(projectId, userId)
+                : shards.onProjectShard(projectId, () -> projectRepository.isMember(projectId, userId));
+    }
+
+    @Override
+    public List<UUID> findCommonProjects(UUID userId, UUID otherUserId) {
+        if (ready) {
+            return graph.commonProjects(userId, otherUserId);
+        }
+        List<UUID> common = new ArrayList<>();
+        shards.onEveryShard(() -> projectRepository.findCommonProjectIds(userId, otherUserId)).forEach(common::addAll);
+        return common;
+    }
+
+    @Override
+    public List<UUID> findCollaborators(UUID userId, int limit) {
+        if (ready) {
+            return graph.collaborators(userId, limit);
+        }
+        Set<UUID> collaborators = new LinkedHashSet<>();
+        shards.onEveryShard(() -> projectRepository.findCollaboratorIds(userId, PageRequest.of(0, limit)))
+                .forEach(collaborators::addAll);
+        return collaborators.stream().limit(limit).toList();
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Loads a fresh graph and swaps it in. Changes that arrive while loading are applied to the old graph
+     * and replayed in order onto the new one; replaying an add or remove the snapshot already saw is a no-op.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        rebuildQueued.set(false);
+        synchronized (changeLock) {
+            rebuilding = true;
+            changesDuringRebuild.clear();
+        }
+        MembershipGraph fresh = new MembershipGraph();
+        try {
+            shards.onEveryShard(() -> {
+                load(fresh);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            synchronized (changeLock) {
+                rebuilding = false;
+                changesDuringRebuild.clear();
+            }
+            throw e;
+        }
+        fresh.optimize();
+        synchronized (changeLock) {
+            changesDuringRebuild.forEach(change -> change.accept(fresh));
+            changesDuringRebuild.clear();
+            graph = fresh;
+            rebuilding = false;
+        }
+        ready = true;
+        log.info("Membership graph loaded");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        if (event.isAssigned()) {
+            applyChange(target -> target.add(event.getProjectId(), event.getUserId()));
+        } else {
+            applyChange(target -> target.remove(event.getProjectId(), event.getUserId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectMembersChanged(ProjectMembersChangedEvent event) {
+        applyChange(target -> {
+            event.getAddedUserIds().forEach(userId -> target.add(event.getProjectId(), userId));
+            event.getRemovedUserIds().forEach(userId -> target.remove(event.getProjectId(), userId));
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectsDeleted(ProjectsDeletedEvent event) {
+        applyChange(target -> event.getProjectIds().forEach(target::removeProject));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersDeleted(UsersDeletedEvent event) {
+        applyChange(target -> event.getUserIds().forEach(target::removeUser));
+    }
+
+    @Async
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(classes = MembershipBulkChangedEvent.class, fallbackExecution = true)
+    public void onMembershipBulkChanged() {
+        // A rebuild that is queued but has not started loading will see this change as well.
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuild();
+        }
+    }
+
+    // Shards stream in parallel, so rows are added to the shared graph in locked batches.
+    private void load(MembershipGraph target) {
+        List<UUID[]> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        try (Stream<Object[]> rows = projectRepository.streamMemberships()) {
+            rows.forEach(row -> {
+                batch.add(new UUID[]{toUuid(row[0]), toUuid(row[1])});
+                if (batch.size() == LOAD_BATCH_SIZE) {
+                    addAll(target, batch);
+                }
+            });
+        }
+        addAll(target, batch);
+    }
+
+    private static void addAll(MembershipGraph target, List<UUID[]> batch) {
+        synchronized (target) {
+            batch.forEach(membership -> target.add(membership[0], membership[1]));
+        }
+        batch.clear();
+    }
+
+    private void applyChange(Consumer<MembershipGraph> change) {
+        synchronized (changeLock) {
+            change.accept(graph);
+            if (rebuilding) {
+                changesDuringRebuild.add(change);
+            }
+        }
+    }
+
+    // Native queries return BINARY(16) columns as raw bytes.
+    private static UUID toUuid(Object column) {
+        if (column instanceof UUID uuid) {
+            return uuid;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap((byte[]) column);
+        return new UUID(bytes.getLong(), bytes.getLong());
+    }
+}
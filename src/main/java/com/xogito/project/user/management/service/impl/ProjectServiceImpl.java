@@ -1,125 +1,470 @@
 package com.xogito.project.user.management.service.impl;
 
+import com.xogito.project.user.management.dto.BulkDeleteRequestDTO;
+import com.xogito.project.user.management.dto.BulkDeleteResultDTO;
+import com.xogito.project.user.management.dto.MemberTransferRequestDTO;
+import com.xogito.project.user.management.dto.MemberTransferResultDTO;
 import com.xogito.project.user.management.dto.ProjectDTO;
+import com.xogito.project.user.management.dto.ProjectDetailsDTO;
+import com.xogito.project.user.management.dto.ProjectPatchDTO;
+import com.xogito.project.user.management.dto.UserDTO;
+import com.xogito.project.user.management.event.MembershipBulkChangedEvent;
+import com.xogito.project.user.management.event.MembershipChangedEvent;
+import com.xogito.project.user.management.event.ProjectMembersChangedEvent;
+import com.xogito.project.user.management.event.ProjectsDeletedEvent;
+import com.xogito.project.user.management.exception.NotFoundException;
 import com.xogito.project.user.management.mapper.ProjectUserMapper;
 import com.xogito.project.user.management.model.Project;
 import com.xogito.project.user.management.model.User;
+import com.xogito.project.user.management.repository.LikePatterns;
 import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.repository.ProjectSpecifications;
 import com.xogito.project.user.management.repository.UserRepository;
 import com.xogito.project.user.management.service.ProjectService;
+import com.xogito.project.user.management.sharding.Shards;
+import com.xogito.project.user.management.support.Fieldset;
+import com.xogito.project.user.management.support.LookupCoalescer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProjectServiceImpl implements ProjectService {
+    private static final int MAX_EXPANDED_USERS = 1000;
+    private static final int TRANSFER_BATCH_SIZE = 1000;
+
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final ProjectUserMapper projectMapper;
+    private final LookupCoalescer lookupCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Shards shards;
 
     @Override
     public Project findProjectById(UUID id) {
-        return projectRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Project not found with ID: " + id));
+        return lookupCoalescer.execute("project-by-id", id, () -> shards.onProjectShard(id, () -> projectRepository.findById(id)
+                .orElseThrow(() -> NotFoundException.project(id))));
     }
 
+    /**
+     * Reads the project straight from its shard, for returning the result of a write. Unlike
+     * {@link #findProjectById} it never joins a lookup that may have started before the write.
+     */
     @Override
+    public Project readBackProject(UUID id) {
+        return shards.onProjectShard(id, () -> projectRepository.findById(id)
+                .orElseThrow(() -> NotFoundException.project(id)));
+    }
+
+    /**
+     * Reads only the version column, by primary key, for answering conditional GETs.
+     */
+    @Override
+    public long getProjectVersion(UUID id) {
+        return lookupCoalescer.execute("project-version", id, () -> shards.onProjectShard(id, () -> projectRepository.findVersionById(id)
+                .orElseThrow(() -> NotFoundException.project(id))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProjectDetailsDTO getProjectDetails(UUID id, boolean expandUsers, int userLimit) {
+        int limit = Math.max(1, Math.min(userLimit, MAX_EXPANDED_USERS));
+        return lookupCoalescer.execute("project-details", Arrays.asList(id, expandUsers, limit), () -> shards.onProjectShard(id, () -> {
+            Project project = projectRepository.findById(id)
+                    .orElseThrow(() -> NotFoundException.project(id));
+            List<UserDTO> users = expandUsers
+                    ? projectRepository.findAssignedUsers(id, PageRequest.of(0, limit))
+                    : null;
+            return new ProjectDetailsDTO(project.getId(), project.getName(), project.getDescription(),
+                    project.getMemberCount(), users, project.getVersion());
+        }));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProjectFields(UUID id, Fieldset fields, boolean expandUsers, int userLimit) {
+        int limit = Math.max(1, Math.min(userLimit, MAX_EXPANDED_USERS));
+        return lookupCoalescer.execute("project-fields", Arrays.asList(id, fields, expandUsers, limit), () -> shards.onProjectShard(id, () -> {
+            Map<String, Object> project = projectRepository
+                    .findFields(ProjectSpecifications.hasId(id), fields, Pageable.unpaged()).stream()
+                    .findFirst()
+                    .orElseThrow(() -> NotFoundException.project(id));
+            if (expandUsers) {
+                project.put("users", projectRepository.findAssignedUsers(id, PageRequest.of(0, limit)));
+            }
+            return project;
+        }));
+    }
+
+    @Override
+    @Transactional
     public Project createProject(ProjectDTO projectDto) {
 
         if (projectDto.getName() == null || projectDto.getName().isEmpty()) {
             throw new IllegalArgumentException("Name is required");
         }
-        return projectRepository.save(projectMapper.mapProjectDtoToProject(projectDto));
+        Project project = projectMapper.mapProjectDtoToProject(projectDto);
+        if (!shards.isSharded()) {
+            return projectRepository.save(project);
+        }
+        // The shard follows from the id, so it has to be known before the row is written.
+        UUID id = UUID.randomUUID();
+        shards.runOnProjectShard(id, () -> projectRepository.insertProject(id, project.getName(), project.getDescription()));
+        project.setId(id);
+        return project;
     }
 
     @Override
     public Project updateProject(UUID id, ProjectDTO updatedProject) {
         Project project =  projectMapper.mapProjectDtoToProject(updatedProject);
-        Project existingProject = projectRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Project not found with ID: " + id));
-        if(project.getName() != null) existingProject.setName(project.getName());
-        if(project.getDescription() != null) existingProject.setDescription(project.getDescription());
-        projectRepository.save(existingProject);
-        return existingProject;
+        return shards.onProjectShard(id, () -> {
+            Project existingProject = projectRepository.findById(id)
+                    .orElseThrow(() -> NotFoundException.project(id));
+            if(project.getName() != null) existingProject.setName(project.getName());
+            if(project.getDescription() != null) existingProject.setDescription(project.getDescription());
+            projectRepository.save(existingProject);
+            return existingProject;
+        });
     }
 
+    /**
+     * Applies the non-null fields with one UPDATE and no read of the project beforehand.
+     */
     @Override
-    public ResponseEntity<Object> deleteProject(UUID id) {
-        Optional<Project> projectOptional = projectRepository.findById(id);
-        if (projectOptional.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Project does not exist!");
+    @Transactional
+    public void patchProject(UUID id, ProjectPatchDTO patch) {
+        if (patch == null || (patch.getName() == null && patch.getDescription() == null)) {
+            throw new IllegalArgumentException("At least one of name or description is required");
+        }
+        if (patch.getName() != null && patch.getName().isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        int updated = shards.onProjectShard(id,
+                () -> projectRepository.patchProject(id, patch.getName(), patch.getDescription()));
+        // Connector/J reports matched rows, so an unchanged project still counts.
+        if (updated == 0) {
+            throw NotFoundException.project(id);
         }
-        try {
+    }
+
+    @Override
+    public void deleteProject(UUID id) {
+        List<UUID> memberIds = shards.onProjectShard(id, () -> {
+            Optional<Project> projectOptional = projectRepository.findById(id);
+            if (projectOptional.isEmpty()) {
+                throw NotFoundException.project(id);
+            }
+            List<UUID> members = projectRepository.findMemberIds(id);
             projectRepository.deleteById(id);
-            return ResponseEntity.status(HttpStatus.CREATED).body("Project deleted successfully!");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.CREATED).body(e.getMessage());
+            return members;
+        });
+        eventPublisher.publishEvent(new ProjectsDeletedEvent(List.of(id), memberIds));
+    }
+
+    @Override
+    @Transactional
+    public BulkDeleteResultDTO deleteProjects(BulkDeleteRequestDTO request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byName = request.getNameLike() != null && !request.getNameLike().isEmpty();
+        if (byIds == byName) {
+            throw new IllegalArgumentException("Either ids or nameLike is required, but not both");
+        }
+        List<BulkDeleteResultDTO> perShard;
+        if (byIds) {
+            // Read first so listeners can release the members' counts without a rebuild.
+            List<UUID> memberIds = new ArrayList<>();
+            shards.onShardsOf(request.getIds(), projectRepository::findMemberIdsOfProjects).forEach(memberIds::addAll);
+            perShard = shards.onShardsOf(request.getIds(), ids -> new BulkDeleteResultDTO(
+                    projectRepository.deleteMembershipsByProjectIds(ids),
+                    projectRepository.deleteByIds(ids)));
+            eventPublisher.publishEvent(new ProjectsDeletedEvent(request.getIds(), memberIds));
+        } else {
+            // A prefix, not a raw pattern, so a request cannot match every project with "%".
+            String nameLike = LikePatterns.prefix(request.getNameLike());
+            perShard = shards.onEveryShard(() -> new BulkDeleteResultDTO(
+                    projectRepository.deleteMembershipsByProjectNameLike(nameLike),
+                    projectRepository.deleteByNameLike(nameLike)));
+            eventPublisher.publishEvent(new MembershipBulkChangedEvent("delete-projects"));
         }
+        int membershipsDeleted = perShard.stream().mapToInt(BulkDeleteResultDTO::getMembershipsDeleted).sum();
+        int deleted = perShard.stream().mapToInt(BulkDeleteResultDTO::getDeleted).sum();
+        return new BulkDeleteResultDTO(membershipsDeleted, deleted);
     }
 
     @Override
     public List<Project> searchProjectsByName(String name, int pageNumber, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNumber, pageSize);
-        Page<Project> page = projectRepository.searchByName(name, pageable);
+        return lookupCoalescer.execute("project-search", Arrays.asList(name, pageNumber, pageSize), () -> {
+            List<Project> page = shards.gatherPage(pageNumber, pageSize, Project::getId,
+                    pageable -> projectRepository.searchByName(name, pageable).getContent());
 
-        if (page.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
-        }
-        return page.getContent();
+            if (page.isEmpty()) {
+                throw NotFoundException.noProjects();
+            }
+            return page;
+        });
     }
 
     @Override
-    public ResponseEntity<Object> assignUserToProject(UUID projectId, UUID userId) {
-        try{
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+    public List<Map<String, Object>> searchProjectFieldsByName(String name, int pageNumber, int pageSize, Fieldset fields) {
+        return lookupCoalescer.execute("project-fields-search", Arrays.asList(name, pageNumber, pageSize, fields), () -> {
+            // Merging shard pages needs the id, even when the client did not ask for it.
+            Fieldset selected = shards.isSharded() ? fields.including("id") : fields;
+            List<Map<String, Object>> projects = shards.gatherPage(pageNumber, pageSize, row -> (UUID) row.get("id"),
+                    pageable -> projectRepository.findFields(ProjectSpecifications.nameLike(name), selected, pageable));
+            if (projects.isEmpty()) {
+                throw NotFoundException.noProjects();
+            }
+            if (!fields.getNames().contains("id")) {
+                projects.forEach(row -> row.remove("id"));
+            }
+            return projects;
+        });
+    }
 
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new IllegalArgumentException("Project not found with ID: " + projectId));
+    @Override
+    @Transactional
+    public void assignUserToProject(UUID projectId, UUID userId) {
+        shards.runOnProjectShard(projectId, () -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> NotFoundException.user(userId));
 
-        if (project.getAssignedUsers().contains(user)) {
-            throw new IllegalArgumentException("User already assigned to the project");
-        }
-        user.getAssignedProjects().add(project);
-        project.getAssignedUsers().add(user);
-        projectRepository.save(project);
-        return ResponseEntity.status(HttpStatus.CREATED).body("Assign process completed succesffully");
-        }
-        catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body("Error: "+ e.getMessage());
-        }
+            Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> NotFoundException.project(projectId));
+
+            if (project.getAssignedUsers().contains(user)) {
+                throw new IllegalArgumentException("User already assigned to the project");
+            }
+            user.getAssignedProjects().add(project);
+            project.getAssignedUsers().add(user);
+            projectRepository.save(project);
+            projectRepository.adjustMemberCount(projectId, 1);
+            eventPublisher.publishEvent(new MembershipChangedEvent(projectId, userId, true));
+        });
     }
     @Override
     public List<ProjectDTO> getAllProjects() {
-        List<Project> projects = projectRepository.findAll();
-        return projects.stream()
-                .map(project -> new ProjectDTO(project.getId(), project.getName(), project.getDescription()))
-                .collect(Collectors.toList());
+        List<ProjectDTO> projects = new ArrayList<>();
+        shards.onEveryShard(() -> projectRepository.findAll().stream()
+                .map(project -> new ProjectDTO(project.getId(), project.getName(), project.getDescription(), project.getMemberCount()))
+                .collect(Collectors.toList()))
+                .forEach(projects::addAll);
+        return projects;
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllProjectFields(Fieldset fields) {
+        List<Map<String, Object>> projects = new ArrayList<>();
+        shards.onEveryShard(() -> projectRepository.findFields(null, fields, Pageable.unpaged())).forEach(projects::addAll);
+        return projects;
     }
 
     @Override
+    @Transactional
     public void removeUserFromProject(UUID projectId, UUID userId) {
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new IllegalArgumentException("Project not found with ID: " + projectId));
+        shards.runOnProjectShard(projectId, () -> {
+            Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> NotFoundException.project(projectId));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> NotFoundException.user(userId));
 
-        project.getAssignedUsers().remove(user);
-        user.getAssignedProjects().remove(project);
+            boolean removed = project.getAssignedUsers().remove(user);
+            user.getAssignedProjects().remove(project);
 
-        projectRepository.save(project);
-        userRepository.save(user);
+            projectRepository.save(project);
+            userRepository.save(user);
+            if (removed) {
+                projectRepository.adjustMemberCount(projectId, -1);
+                eventPublisher.publishEvent(new MembershipChangedEvent(projectId, userId, false));
+            }
+        });
     }
+
+    @Override
+    @Transactional
+    public MemberTransferResultDTO copyMembers(UUID sourceProjectId, UUID targetProjectId,
+                                               MemberTransferRequestDTO request) {
+        MemberFilter filter = memberFilter(sourceProjectId, targetProjectId, request);
+        if (shards.shardOf(sourceProjectId) != shards.shardOf(targetProjectId)) {
+            return transferAcrossShards(sourceProjectId, targetProjectId, filter, request, false);
+        }
+        return shards.onProjectShard(sourceProjectId, () -> {
+            requireProjects(sourceProjectId, targetProjectId);
+            List<UUID> addedIds = absentMembers(targetProjectId, memberIds(sourceProjectId, filter, request));
+            int added = copyMemberships(sourceProjectId, targetProjectId, filter, request);
+            if (added > 0) {
+                projectRepository.adjustMemberCount(targetProjectId, added);
+            }
+            publishTransfer("copy-members", added == addedIds.size(),
+                    targetProjectId, addedIds, sourceProjectId, List.of());
+            return new MemberTransferResultDTO(added, 0);
+        });
+    }
+
+    /**
+     * Copies the selected memberships to the target, then deletes them from the source. The copy's
+     * {@code INSERT ... SELECT} share-locks the source rows it reads, so no membership can slip into the
+     * source between the two statements and be deleted without having been copied.
+     */
+    @Override
+    @Transactional
+    public MemberTransferResultDTO moveMembers(UUID sourceProjectId, UUID targetProjectId,
+                                               MemberTransferRequestDTO request) {
+        MemberFilter filter = memberFilter(sourceProjectId, targetProjectId, request);
+        if (shards.shardOf(sourceProjectId) != shards.shardOf(targetProjectId)) {
+            return transferAcrossShards(sourceProjectId, targetProjectId, filter, request, true);
+        }
+        return shards.onProjectShard(sourceProjectId, () -> {
+            requireProjects(sourceProjectId, targetProjectId);
+            List<UUID> removedIds = memberIds(sourceProjectId, filter, request);
+            List<UUID> addedIds = absentMembers(targetProjectId, removedIds);
+            int added = copyMemberships(sourceProjectId, targetProjectId, filter, request);
+            int removed = switch (filter) {
+                case ALL -> projectRepository.deleteMemberships(sourceProjectId);
+                case USER_IDS -> projectRepository.deleteMembershipsOfUsers(sourceProjectId, request.getUserIds());
+                case EMAIL_LIKE -> projectRepository.deleteMembershipsOfUserEmailLike(sourceProjectId, request.getEmailLike());
+            };
+            if (added > 0) {
+                projectRepository.adjustMemberCount(targetProjectId, added);
+            }
+            if (removed > 0) {
+                projectRepository.adjustMemberCount(sourceProjectId, -removed);
+            }
+            publishTransfer("move-members", added == addedIds.size() && removed == removedIds.size(),
+                    targetProjectId, addedIds, sourceProjectId, removedIds);
+            return new MemberTransferResultDTO(added, removed);
+        });
+    }
+
+    /**
+     * Transfers members between projects on different shards: reads the member ids from the source shard,
+     * inserts the missing ones on the target shard, and for a move then deletes them from the source shard.
+     * Each step commits on its own shard, so a failed move can leave members in both projects; repeating
+     * the move completes it.
+     */
+    private MemberTransferResultDTO transferAcrossShards(UUID sourceProjectId, UUID targetProjectId,
+                                                         MemberFilter filter, MemberTransferRequestDTO request,
+                                                         boolean move) {
+        List<UUID> userIds = shards.inTransactionOnProjectShard(sourceProjectId, () -> {
+            requireProject(sourceProjectId);
+            return memberIds(sourceProjectId, filter, request);
+        });
+        List<UUID> addedIds = new ArrayList<>();
+        int added = shards.inTransactionOnProjectShard(targetProjectId, () -> {
+            requireProject(targetProjectId);
+            addedIds.addAll(absentMembers(targetProjectId, userIds));
+            int inserted = 0;
+            for (int from = 0; from < userIds.size(); from += TRANSFER_BATCH_SIZE) {
+                List<UUID> batch = userIds.subList(from, Math.min(userIds.size(), from + TRANSFER_BATCH_SIZE));
+                inserted += projectRepository.insertMembershipsIfAbsent(targetProjectId, batch);
+            }
+            if (inserted > 0) {
+                projectRepository.adjustMemberCount(targetProjectId, inserted);
+            }
+            return inserted;
+        });
+        int removed = !move ? 0 : shards.inTransactionOnProjectShard(sourceProjectId, () -> {
+            int deleted = 0;
+            for (int from = 0; from < userIds.size(); from += TRANSFER_BATCH_SIZE) {
+                List<UUID> batch = userIds.subList(from, Math.min(userIds.size(), from + TRANSFER_BATCH_SIZE));
+                deleted += projectRepository.deleteMembershipsOfUsers(sourceProjectId, batch);
+            }
+            if (deleted > 0) {
+                projectRepository.adjustMemberCount(sourceProjectId, -deleted);
+            }
+            return deleted;
+        });
+        publishTransfer(move ? "move-members" : "copy-members",
+                added == addedIds.size() && (!move || removed == userIds.size()),
+                targetProjectId, addedIds, sourceProjectId, move ? userIds : List.of());
+        return new MemberTransferResultDTO(added, removed);
+    }
+
+    private List<UUID> memberIds(UUID projectId, MemberFilter filter, MemberTransferRequestDTO request) {
+        return switch (filter) {
+            case ALL -> projectRepository.findMemberIds(projectId);
+            case USER_IDS -> projectRepository.findMemberIdsOfUsers(projectId, request.getUserIds());
+            case EMAIL_LIKE -> projectRepository.findMemberIdsByEmailLike(projectId, request.getEmailLike());
+        };
+    }
+
+    // The users among userIds that are not members of the project yet, in the order given.
+    private List<UUID> absentMembers(UUID projectId, List<UUID> userIds) {
+        Set<UUID> present = new HashSet<>();
+        for (int from = 0; from < userIds.size(); from += TRANSFER_BATCH_SIZE) {
+            present.addAll(projectRepository.findMemberIdsOfUsers(projectId,
+                    userIds.subList(from, Math.min(userIds.size(), from + TRANSFER_BATCH_SIZE))));
+        }
+        return userIds.stream().filter(userId -> !present.contains(userId)).toList();
+    }
+
+    /**
+     * Publishes the members a transfer added to the target and removed from the source, so listeners update
+     * in place. The ids are read just before the set-based statements; when those changed a different number
+     * of rows, a concurrent change got in between and listeners are told to rebuild instead.
+     */
+    private void publishTransfer(String operation, boolean exact, UUID targetProjectId, List<UUID> addedIds,
+                                 UUID sourceProjectId, List<UUID> removedIds) {
+        if (!exact) {
+            eventPublisher.publishEvent(new MembershipBulkChangedEvent(operation));
+            return;
+        }
+        if (!addedIds.isEmpty()) {
+            eventPublisher.publishEvent(new ProjectMembersChangedEvent(targetProjectId, addedIds, List.of()));
+        }
+        if (!removedIds.isEmpty()) {
+            eventPublisher.publishEvent(new ProjectMembersChangedEvent(sourceProjectId, List.of(), removedIds));
+        }
+    }
+
+    private int copyMemberships(UUID sourceProjectId, UUID targetProjectId, MemberFilter filter,
+                                MemberTransferRequestDTO request) {
+        return switch (filter) {
+            case ALL -> projectRepository.copyMemberships(sourceProjectId, targetProjectId);
+            case USER_IDS -> projectRepository.copyMembershipsOfUsers(sourceProjectId, targetProjectId,
+                    request.getUserIds());
+            case EMAIL_LIKE -> projectRepository.copyMembershipsOfUserEmailLike(sourceProjectId, targetProjectId,
+                    request.getEmailLike());
+        };
+    }
+
+    private MemberFilter memberFilter(UUID sourceProjectId, UUID targetProjectId, MemberTransferRequestDTO request) {
+        if (sourceProjectId.equals(targetProjectId)) {
+            throw new IllegalArgumentException("Source and target project must differ");
+        }
+        boolean byIds = request != null && request.getUserIds() != null && !request.getUserIds().isEmpty();
+        boolean byEmail = request != null && request.getEmailLike() != null && !request.getEmailLike().isEmpty();
+        if (byIds && byEmail) {
+            throw new IllegalArgumentException("Either userIds or emailLike can be given, but not both");
+        }
+        return byIds ? MemberFilter.USER_IDS : byEmail ? MemberFilter.EMAIL_LIKE : MemberFilter.ALL;
+    }
+
+    private void requireProjects(UUID... projectIds) {
+        for (UUID projectId : projectIds) {
+            requireProject(projectId);
+        }
+    }
+
+    private void requireProject(UUID projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw NotFoundException.project(projectId);
+        }
+    }
+
+    private enum MemberFilter { ALL, USER_IDS, EMAIL_LIKE }
 }
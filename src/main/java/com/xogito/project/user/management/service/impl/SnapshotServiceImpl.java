@@ -0,0 +1,354 @@
+package com.xogito.project.user.management.service.impl;
+
+import com.xogito.project.user.management.dto.SnapshotSummaryDTO;
+import com.xogito.project.user.management.event.MembershipBulkChangedEvent;
+import com.xogito.project.user.management.exception.ConflictException;
+import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.service.SnapshotService;
+import com.xogito.project.user.management.sharding.Shards;
+import com.xogito.project.user.management.snapshot.SnapshotFormat;
+import com.xogito.project.user.management.snapshot.SnapshotFormatException;
+import com.xogito.project.user.management.snapshot.SnapshotReader;
+import com.xogito.project.user.management.snapshot.SnapshotWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Exports the whole dataset to a {@link SnapshotFormat} file and loads it back into an empty database.
+ * <p>
+ * Export streams each table row by row inside one read-only transaction, so the three sections are a consistent
+ * snapshot. Import runs on a single connection with foreign key and unique checks off, drops the secondary
+ * indexes up front and rebuilds them once at the end, and commits one batched insert per snapshot chunk. If the
+ * load fails partway, the chunks already committed are deleted again, so a failed import leaves the database
+ * empty and can be retried.
+ * Member counts are recomputed afterwards rather than stored in the file. Row versions are kept, so an ETag
+ * a client holds still matches only the data it was issued for.
+ */
+@Slf4j
+@Service
+public class SnapshotServiceImpl implements SnapshotService {
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    /**
+     * Secondary indexes built once after the load instead of maintained row by row. Keep in step with the
+     * migrations. idx_project_user_user stays, as the foreign key on project_user.user_id needs it.
+     */
+    private static final List<DeferredIndex> DEFERRED_INDEXES = List.of(
+            new DeferredIndex("users", "idx_users_name", "name"),
+            new DeferredIndex("users", "idx_users_email_lower", "email_lower"),
+            new DeferredIndex("users", "idx_users_domain_name", "email_domain, name"),
+            new DeferredIndex("users", "idx_users_domain_email_lower", "email_domain, email_lower"),
+            new DeferredIndex("projects", "idx_projects_member_count", "member_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProjectRepository projectRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Shards shards;
+    private final Path directory;
+
+    public SnapshotServiceImpl(DataSource dataSource,
+                               TransactionTemplate transactionTemplate,
+                               ProjectRepository projectRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               Shards shards,
+                               @Value("${app.snapshot.directory:snapshots}") String directory) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Connector/J streams rows one at a time instead of buffering the whole result set.
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.transactionTemplate = transactionTemplate;
+        this.projectRepository = projectRepository;
+        this.eventPublisher = eventPublisher;
+        this.shards = shards;
+        this.directory = Paths.get(directory);
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SnapshotSummaryDTO exportSnapshot(String name) {
+        requireSingleDatabase();
+        long started = System.nanoTime();
+        Path file = resolve(name);
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        long[] counts = new long[3];
+        long bytes;
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                SnapshotWriter writer = new SnapshotWriter(out);
+                stream("SELECT id, name, email, version FROM users", rs -> {
+                    writer.writeUser(toUuid(rs.getBytes(1)), rs.getString(2), rs.getString(3), rs.getLong(4));
+                    counts[0]++;
+                });
+                stream("SELECT id, name, description, version FROM projects", rs -> {
+                    writer.writeProject(toUuid(rs.getBytes(1)), rs.getString(2), rs.getString(3), rs.getLong(4));
+                    counts[1]++;
+                });
+                stream("SELECT project_id, user_id FROM project_user", rs -> {
+                    writer.writeMembership(toUuid(rs.getBytes(1)), toUuid(rs.getBytes(2)));
+                    counts[2]++;
+                });
+                writer.close();
+                bytes = writer.getBytesWritten();
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + name, e);
+        }
+        SnapshotSummaryDTO summary = new SnapshotSummaryDTO(name, counts[0], counts[1], counts[2], bytes,
+                elapsedMillis(started));
+        log.info("Exported snapshot {}: {} users, {} projects, {} memberships, {} bytes in {} ms",
+                name, counts[0], counts[1], counts[2], bytes, summary.getDurationMillis());
+        return summary;
+    }
+
+    @Override
+    public SnapshotSummaryDTO importSnapshot(String name) {
+        requireSingleDatabase();
+        long started = System.nanoTime();
+        Path file = resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Snapshot not found: " + name);
+        }
+        long[] counts = new long[3];
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                load(connection, reader, counts);
+                return null;
+            });
+        } catch (SnapshotFormatException e) {
+            throw invalidSnapshot(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read snapshot " + name, e);
+        }
+        transactionTemplate.executeWithoutResult(status -> projectRepository.reconcileMemberCounts());
+        eventPublisher.publishEvent(new MembershipBulkChangedEvent("snapshot-import"));
+
+        long bytes;
+        try {
+            bytes = Files.size(file);
+        } catch (IOException e) {
+            bytes = -1;
+        }
+        SnapshotSummaryDTO summary = new SnapshotSummaryDTO(name, counts[0], counts[1], counts[2], bytes,
+                elapsedMillis(started));
+        log.info("Imported snapshot {}: {} users, {} projects, {} memberships in {} ms",
+                name, counts[0], counts[1], counts[2], summary.getDurationMillis());
+        return summary;
+    }
+
+    private void load(Connection connection, SnapshotReader reader, long[] counts) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        try (Statement statement = connection.createStatement()) {
+            requireEmpty(statement);
+            statement.execute("SET foreign_key_checks = 0");
+            statement.execute("SET unique_checks = 0");
+            try {
+                dropDeferredIndexes(statement);
+                connection.setAutoCommit(false);
+                try (PreparedStatement users = connection.prepareStatement(
+                             "INSERT INTO users (id, name, email, email_lower, email_domain, version) VALUES (?, ?, ?, ?, ?, ?)");
+                     PreparedStatement projects = connection.prepareStatement(
+                             "INSERT INTO projects (id, name, description, version) VALUES (?, ?, ?, ?)");
+                     PreparedStatement memberships = connection.prepareStatement(
+                             "INSERT INTO project_user (project_id, user_id) VALUES (?, ?)")) {
+                    SnapshotReader.Chunk chunk;
+                    while ((chunk = reader.nextChunk()) != null) {
+                        switch (chunk.section()) {
+                            case SnapshotFormat.USERS -> counts[0] += loadUsers(chunk, users);
+                            case SnapshotFormat.PROJECTS -> counts[1] += loadProjects(chunk, projects);
+                            case SnapshotFormat.MEMBERSHIPS -> counts[2] += loadMemberships(chunk, memberships);
+                            default -> throw new SnapshotFormatException("Unknown snapshot section " + chunk.section());
+                        }
+                        connection.commit();
+                    }
+                } catch (SnapshotFormatException e) {
+                    discardPartialLoad(connection, statement, e);
+                    throw invalidSnapshot(e);
+                } catch (IOException e) {
+                    discardPartialLoad(connection, statement, e);
+                    throw new UncheckedIOException(e);
+                } catch (SQLException | RuntimeException e) {
+                    discardPartialLoad(connection, statement, e);
+                    throw e;
+                }
+            } finally {
+                try {
+                    // The connection goes back to the pool, so the checks are restored before anything else can fail.
+                    connection.setAutoCommit(autoCommit);
+                    statement.execute("SET unique_checks = 1");
+                    statement.execute("SET foreign_key_checks = 1");
+                } finally {
+                    // Runs even after a failed load, so the schema is never left without its indexes.
+                    createDeferredIndexes(statement);
+                }
+            }
+        }
+    }
+
+    private void stream(String sql, RowWriter rowWriter) {
+        streamingJdbcTemplate.query(sql, (ResultSet rs) -> {
+            try {
+                rowWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static int loadUsers(SnapshotReader.Chunk chunk, PreparedStatement insert) throws SQLException {
+        for (int i = 0; i < chunk.records(); i++) {
+            insert.setBytes(1, chunk.readUuidBytes());
+            insert.setString(2, chunk.readString());
+            String email = chunk.readString();
+            insert.setString(3, email);
+            // Same normalization as User#normalizeEmail.
+            String emailLower = email == null ? null : email.toLowerCase(Locale.ROOT);
+            insert.setString(4, emailLower);
+            insert.setString(5, emailLower == null ? null : emailLower.substring(emailLower.lastIndexOf('@') + 1));
+            insert.setLong(6, chunk.readLong());
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        return chunk.records();
+    }
+
+    private static int loadProjects(SnapshotReader.Chunk chunk, PreparedStatement insert) throws SQLException {
+        for (int i = 0; i < chunk.records(); i++) {
+            insert.setBytes(1, chunk.readUuidBytes());
+            insert.setString(2, chunk.readString());
+            insert.setString(3, chunk.readString());
+            insert.setLong(4, chunk.readLong());
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        return chunk.records();
+    }
+
+    private static int loadMemberships(SnapshotReader.Chunk chunk, PreparedStatement insert) throws SQLException {
+        for (int i = 0; i < chunk.records(); i++) {
+            insert.setBytes(1, chunk.readUuidBytes());
+            insert.setBytes(2, chunk.readUuidBytes());
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        return chunk.records();
+    }
+
+    // A damaged file is the client's input, so it is a 400 rather than a server error.
+    private static IllegalArgumentException invalidSnapshot(SnapshotFormatException e) {
+        return new IllegalArgumentException("Snapshot is not valid: " + e.getMessage(), e);
+    }
+
+    private static void requireEmpty(Statement statement) throws SQLException {
+        for (String table : List.of("users", "projects", "project_user")) {
+            try (ResultSet rs = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM " + table + ")")) {
+                if (rs.next() && rs.getBoolean(1)) {
+                    throw new ConflictException("Snapshots can only be imported into an empty database, "
+                            + table + " has rows");
+                }
+            }
+        }
+    }
+
+    /**
+     * Rolls back the failed chunk and deletes the chunks already committed, leaving the tables empty as
+     * {@link #requireEmpty} found them, so the import can simply be retried.
+     */
+    private static void discardPartialLoad(Connection connection, Statement statement, Exception failure) {
+        try {
+            connection.rollback();
+            for (String table : List.of("project_user", "projects", "users")) {
+                statement.execute("DELETE FROM " + table);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+            log.error("Could not discard a partly imported snapshot; empty project_user, projects and users "
+                    + "before importing again", e);
+        }
+    }
+
+    private static void dropDeferredIndexes(Statement statement) throws SQLException {
+        for (DeferredIndex index : DEFERRED_INDEXES) {
+            if (indexExists(statement, index)) {
+                statement.execute("ALTER TABLE " + index.table() + " DROP INDEX " + index.name());
+            }
+        }
+    }
+
+    private static void createDeferredIndexes(Statement statement) throws SQLException {
+        for (DeferredIndex index : DEFERRED_INDEXES) {
+            if (!indexExists(statement, index)) {
+                statement.execute("CREATE INDEX " + index.name() + " ON " + index.table() + " (" + index.columns() + ")");
+            }
+        }
+    }
+
+    private static boolean indexExists(Statement statement, DeferredIndex index) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM information_schema.statistics "
+                + "WHERE table_schema = DATABASE() AND table_name = '" + index.table()
+                + "' AND index_name = '" + index.name() + "'")) {
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+
+    // Snapshots cover one database; a sharded deployment would export only shard 0.
+    private void requireSingleDatabase() {
+        if (shards.isSharded()) {
+            throw new ConflictException("Snapshots are not supported with app.sharding.enabled");
+        }
+    }
+
+    private Path resolve(String name) {
+        if (name == null || !SNAPSHOT_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Snapshot names may only contain letters, digits, '.', '_' and '-'");
+        }
+        return directory.resolve(name);
+    }
+
+    private static UUID toUuid(byte[] column) {
+        ByteBuffer bytes = ByteBuffer.wrap(column);
+        return new UUID(bytes.getLong(), bytes.getLong());
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private record DeferredIndex(String table, String name, String columns) {
+    }
+}
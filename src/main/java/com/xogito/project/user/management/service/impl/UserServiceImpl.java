@@ -1,77 +1,288 @@
 package com.xogito.project.user.management.service.impl;
 
+import com.xogito.project.user.management.dto.BulkDeleteRequestDTO;
+import com.xogito.project.user.management.dto.BulkDeleteResultDTO;
+import com.xogito.project.user.management.dto.UserPatchDTO;
+import com.xogito.project.user.management.event.MembershipBulkChangedEvent;
+import com.xogito.project.user.management.event.UsersDeletedEvent;
+import com.xogito.project.user.management.exception.DuplicateEmailException;
+import com.xogito.project.user.management.exception.NotFoundException;
 import com.xogito.project.user.management.model.User;
+import com.xogito.project.user.management.repository.LikePatterns;
 import com.xogito.project.user.management.repository.UserRepository;
+import com.xogito.project.user.management.repository.UserSpecifications;
 import com.xogito.project.user.management.service.UserService;
-import jakarta.persistence.EntityNotFoundException;
+import com.xogito.project.user.management.sharding.Shards;
+import com.xogito.project.user.management.sharding.UserReplicas;
+import com.xogito.project.user.management.support.Fieldset;
+import com.xogito.project.user.management.support.LookupCoalescer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
 
     private final UserRepository userRepository;
+    private final LookupCoalescer lookupCoalescer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Shards shards;
+    private final UserReplicas userReplicas;
 
     @Override
     public User findUserById(UUID id) {
-        return userRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id));
+        return lookupCoalescer.execute("user-by-id", id, () ->
+                userRepository.findById(id).orElseThrow(() -> NotFoundException.user(id)));
     }
+
+    /**
+     * Reads the user straight from the database, for returning the result of a write. Unlike
+     * {@link #findUserById} it never joins a lookup that may have started before the write.
+     */
+    @Override
+    public User readBackUser(UUID id) {
+        return userRepository.findById(id).orElseThrow(() -> NotFoundException.user(id));
+    }
+
+    /**
+     * Reads only the version column, by primary key, for answering conditional GETs.
+     */
+    @Override
+    public long getUserVersion(UUID id) {
+        return lookupCoalescer.execute("user-version", id, () ->
+                userRepository.findVersionById(id).orElseThrow(() -> NotFoundException.user(id)));
+    }
+
+    /**
+     * Creates the user with a single INSERT under an id generated here, leaving duplicate detection to the
+     * unique email constraint: no existence check beforehand, and concurrent signups with the same email
+     * cannot both get through.
+     * <p>
+     * With sharding the user is written to the user shard and then copied to the other shards under that id.
+     */
     @Override
     public User createUser(User user) {
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email already exists");
-        }
+        UUID id = UUID.randomUUID();
+        user.normalizeEmail();
         try {
-            return userRepository.save(user);
+            shards.inTransactionOnUserShard(() -> userRepository.insertUser(id, user.getName(), user.getEmail(),
+                    user.getEmailLower(), user.getEmailDomain()));
         } catch (DataIntegrityViolationException e) {
+            if (isDuplicateKey(e)) {
+                throw DuplicateEmailException.instance();
+            }
             throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "An error occurred during the database transaction.");
         }
+        userReplicas.replicate(List.of(id));
+        user.setId(id);
+        return user;
     }
     @Override
     public User updateUser(UUID id, User updatedUser) {
+        User savedUser = shards.inTransactionOnUserShard(() -> {
+            User existingUser = userRepository.findById(id)
+                    .orElseThrow(() -> NotFoundException.user(id));
 
-        User existingUser = userRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "User does not exists!"));
-
-        existingUser.setName(updatedUser.getName());
-        existingUser.setEmail(updatedUser.getEmail());
-        return userRepository.save(existingUser);
+            existingUser.setName(updatedUser.getName());
+            existingUser.setEmail(updatedUser.getEmail());
+            return userRepository.save(existingUser);
+        });
+        userReplicas.replicate(List.of(id));
+        return savedUser;
     }
 
+    /**
+     * Applies the non-null fields with one UPDATE and no read of the user beforehand. A taken email is
+     * reported by the unique constraint, as in {@link #createUser}.
+     */
     @Override
-    public ResponseEntity<Object> deleteUser(UUID id) {
-        Optional<User> userOptional = userRepository.findById(id);
-        if (userOptional.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User does not exist!");
+    public void patchUser(UUID id, UserPatchDTO patch) {
+        if (patch == null || (patch.getName() == null && patch.getEmail() == null)) {
+            throw new IllegalArgumentException("At least one of name or email is required");
+        }
+        if (patch.getName() != null && patch.getName().isBlank()) {
+            throw new IllegalArgumentException("Name is required");
         }
+        // @Email accepts an empty string, which would get past User's @NotBlank.
+        if (patch.getEmail() != null && patch.getEmail().isBlank()) {
+            throw new IllegalArgumentException("Email is required");
+        }
+        User normalized = new User();
+        normalized.setEmail(patch.getEmail());
+        normalized.normalizeEmail();
+        int updated;
         try {
-            userRepository.deleteById(id);
-            return ResponseEntity.status(HttpStatus.CREATED).body("User deleted successfully!");
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.CREATED).body(e.getMessage());
+            updated = shards.inTransactionOnUserShard(() -> userRepository.patchUser(id, patch.getName(), patch.getEmail(),
+                    normalized.getEmailLower(), normalized.getEmailDomain()));
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateKey(e)) {
+                throw DuplicateEmailException.instance();
+            }
+            throw e;
+        }
+        // Connector/J reports matched rows, so an unchanged user still counts.
+        if (updated == 0) {
+            throw NotFoundException.user(id);
         }
+        userReplicas.replicate(List.of(id));
+    }
 
+    /**
+     * Deletes the user with its memberships. {@code User.assignedProjects} is the inverse side of the
+     * association, so removing the entity alone would leave its project_user rows behind.
+     */
+    @Override
+    public void deleteUser(UUID id) {
+        List<UUID> ids = List.of(id);
+        List<UUID> projectIds = projectIdsOf(ids);
+        int deleted = shards.inTransactionOnUserShard(() -> {
+            userRepository.releaseMemberCountsByUserIds(ids);
+            userRepository.deleteMembershipsByUserIds(ids);
+            return userRepository.deleteByIds(ids);
+        });
+        if (deleted == 0) {
+            throw NotFoundException.user(id);
+        }
+        userReplicas.replicate(ids);
+        eventPublisher.publishEvent(new UsersDeletedEvent(ids, projectIds));
     }
 
     @Override
-    public List<User> searchUsersByNameAndEmail(String name, String email, int pageNumber, int pageSize) throws EntityNotFoundException {
-        Pageable pageable = PageRequest.of(pageNumber, pageSize);
-        List<User> searchedUser = userRepository.searchUsersByNameAndEmail(name, email, pageable).getContent();
-        if (searchedUser.isEmpty()) {
-            throw new EntityNotFoundException("No users found with the provided search criteria.");
+    public BulkDeleteResultDTO deleteUsers(BulkDeleteRequestDTO request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byEmail = request.getEmailLike() != null && !request.getEmailLike().isEmpty();
+        if (byIds == byEmail) {
+            throw new IllegalArgumentException("Either ids or emailLike is required, but not both");
+        }
+        List<UUID> deletedIds = new ArrayList<>();
+        BulkDeleteResultDTO result;
+        if (byIds) {
+            deletedIds.addAll(request.getIds());
+            List<UUID> projectIds = projectIdsOf(request.getIds());
+            result = shards.inTransactionOnUserShard(() -> {
+                userRepository.releaseMemberCountsByUserIds(request.getIds());
+                return new BulkDeleteResultDTO(userRepository.deleteMembershipsByUserIds(request.getIds()),
+                        userRepository.deleteByIds(request.getIds()));
+            });
+            eventPublisher.publishEvent(new UsersDeletedEvent(request.getIds(), projectIds));
+        } else {
+            // A prefix, not a raw pattern, so a request cannot match every user with "%".
+            String emailLike = LikePatterns.prefix(request.getEmailLike());
+            result = shards.inTransactionOnUserShard(() -> {
+                // The replicas are told which users went; one matching in between is caught by reconciliation.
+                if (shards.isSharded()) {
+                    deletedIds.addAll(userRepository.findIdsByEmailLike(emailLike));
+                }
+                userRepository.releaseMemberCountsByUserEmailLike(emailLike);
+                return new BulkDeleteResultDTO(userRepository.deleteMembershipsByUserEmailLike(emailLike),
+                        userRepository.deleteByEmailLike(emailLike));
+            });
+            eventPublisher.publishEvent(new MembershipBulkChangedEvent("delete-users"));
+        }
+        // Memberships are partitioned across shards, so the replicas delete some of their own.
+        int replicaMembershipsDeleted = userReplicas.replicate(deletedIds);
+        return new BulkDeleteResultDTO(result.getMembershipsDeleted() + replicaMembershipsDeleted, result.getDeleted());
+    }
+
+    @Override
+    public List<User> searchUsersByNameAndEmail(String name, String email, int pageNumber, int pageSize) {
+        return lookupCoalescer.execute("user-search", Arrays.asList(name, email, pageNumber, pageSize), () -> {
+            Pageable pageable = PageRequest.of(pageNumber, pageSize);
+            List<User> searchedUser = userRepository.searchUsersByNameAndEmail(name, email, pageable).getContent();
+            if (searchedUser.isEmpty()) {
+                throw NotFoundException.noUsers();
+            }
+            return searchedUser;
+        });
+    }
+
+    @Override
+    public List<User> searchUsers(String namePrefix, String emailPrefix, String emailDomain, int pageNumber, int pageSize) {
+        Specification<User> filters = searchFilters(namePrefix, emailPrefix, emailDomain);
+        return lookupCoalescer.execute("user-filter-search",
+                Arrays.asList(namePrefix, emailPrefix, emailDomain, pageNumber, pageSize), () -> {
+            List<User> searchedUser = userRepository.findAll(filters, PageRequest.of(pageNumber, pageSize)).getContent();
+            if (searchedUser.isEmpty()) {
+                throw NotFoundException.noUsers();
+            }
+            return searchedUser;
+        });
+    }
+
+    @Override
+    public Map<String, Object> findUserFieldsById(UUID id, Fieldset fields) {
+        return lookupCoalescer.execute("user-fields-by-id", Arrays.asList(id, fields), () ->
+                userRepository.findFields(UserSpecifications.hasId(id), fields, Pageable.unpaged()).stream()
+                        .findFirst()
+                        .orElseThrow(() -> NotFoundException.user(id)));
+    }
+
+    @Override
+    public List<Map<String, Object>> searchUserFieldsByNameAndEmail(String name, String email, int pageNumber,
+                                                                    int pageSize, Fieldset fields) {
+        return lookupCoalescer.execute("user-fields-search", Arrays.asList(name, email, pageNumber, pageSize, fields), () -> {
+            List<Map<String, Object>> searchedUser = userRepository.findFields(
+                    UserSpecifications.nameAndEmailEqual(name, email), fields, PageRequest.of(pageNumber, pageSize));
+            if (searchedUser.isEmpty()) {
+                throw NotFoundException.noUsers();
+            }
+            return searchedUser;
+        });
+    }
+
+    @Override
+    public List<Map<String, Object>> searchUserFields(String namePrefix, String emailPrefix, String emailDomain,
+                                                      int pageNumber, int pageSize, Fieldset fields) {
+        Specification<User> filters = searchFilters(namePrefix, emailPrefix, emailDomain);
+        return lookupCoalescer.execute("user-fields-filter-search",
+                Arrays.asList(namePrefix, emailPrefix, emailDomain, pageNumber, pageSize, fields), () -> {
+            List<Map<String, Object>> searchedUser =
+                    userRepository.findFields(filters, fields, PageRequest.of(pageNumber, pageSize));
+            if (searchedUser.isEmpty()) {
+                throw NotFoundException.noUsers();
+            }
+            return searchedUser;
+        });
+    }
+
+    // A user's memberships live on the shards of their projects, so every shard is asked.
+    private List<UUID> projectIdsOf(List<UUID> userIds) {
+        List<UUID> projectIds = new ArrayList<>();
+        shards.onEveryShard(() -> userRepository.findProjectIdsOfUsers(userIds)).forEach(projectIds::addAll);
+        return projectIds;
+    }
+
+    // Ids are never written with a value that exists, so the only unique key a write can collide on is the email.
+    private static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        return e.getMostSpecificCause() instanceof SQLException sqlException
+                && sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY;
+    }
+
+    private static Specification<User> searchFilters(String namePrefix, String emailPrefix, String emailDomain) {
+        boolean byName = namePrefix != null && !namePrefix.isEmpty();
+        boolean byEmail = emailPrefix != null && !emailPrefix.isEmpty();
+        boolean byDomain = emailDomain != null && !emailDomain.isEmpty();
+        if (!byName && !byEmail && !byDomain) {
+            throw new IllegalArgumentException("At least one of namePrefix, emailPrefix or emailDomain is required");
         }
-        return searchedUser;
+        return Specification.<User>where(byName ? UserSpecifications.nameStartsWith(namePrefix) : null)
+                .and(byEmail ? UserSpecifications.emailStartsWithIgnoreCase(emailPrefix) : null)
+                .and(byDomain ? UserSpecifications.emailDomain(emailDomain) : null);
     }
 
 }
@@ -0,0 +1,24 @@
+package com.xogito.project.user.management.sharding;
+
+/**
+ * The shard the current thread's next connection is routed to. Unset means shard 0, which also serves
+ * reads of the replicated users table.
+ */
+final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.xogito.project.user.management.sharding;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The individual shard databases, for work that addresses shards explicitly such as migrations and
+ * {@link ShardRebalancer}. Everything else goes through the routing {@code DataSource}.
+ */
+public class ShardDataSources implements DisposableBean {
+    private final List<DataSource> shards;
+
+    public ShardDataSources(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    public List<DataSource> all() {
+        return shards;
+    }
+
+    public DataSource get(int shard) {
+        return shards.get(shard);
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (DataSource shard : shards) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
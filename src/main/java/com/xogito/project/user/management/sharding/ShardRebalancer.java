@@ -0,0 +1,123 @@
+package com.xogito.project.user.management.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Offline tool that moves every project, with its memberships, to the shard its id hashes to under the
+ * current {@code app.sharding.shards} list, after shards were added or removed. Start the application with
+ * {@code --app.sharding.rebalance=true --spring.main.web-application-type=none} while nothing else writes;
+ * it rebalances and exits.
+ * <p>
+ * Users are first brought in line with shard 0 on every other shard by {@link UserReplicas}. Each batch of projects is inserted on its new shard
+ * before it is deleted from the old one, and inserts skip rows that already exist, so an interrupted run can
+ * simply be started again.
+ * <p>
+ * Not conditional on the property, for the same reason as {@code TrainingRunExit}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ShardRebalancer implements ApplicationRunner {
+    private static final int BATCH_SIZE = 1000;
+
+    private final ShardingProperties properties;
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+    private final UserReplicas userReplicas;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isRebalance()) {
+            return;
+        }
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards == null) {
+            throw new IllegalStateException("app.sharding.rebalance requires app.sharding.enabled");
+        }
+        rebalance(shards);
+        System.exit(SpringApplication.exit(applicationContext));
+    }
+
+    public void rebalance(ShardDataSources shards) {
+        long replicated = userReplicas.reconcile(shards);
+        log.info("Repaired {} user replica(s)", replicated);
+        for (int shard = 0; shard < shards.size(); shard++) {
+            long moved = moveMisplacedProjects(shards, shard);
+            log.info("Moved {} project(s) off shard {}", moved, shard);
+        }
+    }
+
+    private long moveMisplacedProjects(ShardDataSources shards, int shard) {
+        JdbcTemplate source = new JdbcTemplate(shards.get(shard));
+        long moved = 0;
+        byte[] after = new byte[16];
+        while (true) {
+            List<byte[]> ids = source.query("SELECT id FROM projects WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, row) -> rs.getBytes(1), (Object) after);
+            if (ids.isEmpty()) {
+                return moved;
+            }
+            after = ids.get(ids.size() - 1);
+            Map<Integer, List<byte[]>> misplaced = new TreeMap<>();
+            for (byte[] id : ids) {
+                int owner = ShardRouter.shardOf(toUuid(id), shards.size());
+                if (owner != shard) {
+                    misplaced.computeIfAbsent(owner, target -> new ArrayList<>()).add(id);
+                }
+            }
+            for (Map.Entry<Integer, List<byte[]>> batch : misplaced.entrySet()) {
+                move(shards.get(shard), shards.get(batch.getKey()), batch.getValue());
+                moved += batch.getValue().size();
+            }
+        }
+    }
+
+    private void move(DataSource from, DataSource to, List<byte[]> projectIds) {
+        JdbcTemplate source = new JdbcTemplate(from);
+        JdbcTemplate target = new JdbcTemplate(to);
+        String in = String.join(", ", Collections.nCopies(projectIds.size(), "?"));
+        Object[] ids = projectIds.toArray();
+
+        List<Object[]> projects = source.query("SELECT id, name, description, member_count, version FROM projects WHERE id IN (" + in + ")",
+                (rs, row) -> new Object[]{rs.getBytes(1), rs.getString(2), rs.getString(3), rs.getInt(4), rs.getLong(5)}, ids);
+        List<Object[]> memberships = source.query("SELECT project_id, user_id FROM project_user WHERE project_id IN (" + in + ")",
+                (rs, row) -> new Object[]{rs.getBytes(1), rs.getBytes(2)}, ids);
+
+        new TransactionTemplate(new DataSourceTransactionManager(to)).executeWithoutResult(status -> {
+            target.batchUpdate("INSERT IGNORE INTO projects (id, name, description, member_count, version) VALUES (?, ?, ?, ?, ?)",
+                    projects);
+            target.batchUpdate("INSERT IGNORE INTO project_user (project_id, user_id) VALUES (?, ?)", memberships);
+        });
+        new TransactionTemplate(new DataSourceTransactionManager(from)).executeWithoutResult(status -> {
+            source.update("DELETE FROM project_user WHERE project_id IN (" + in + ")", ids);
+            source.update("DELETE FROM projects WHERE id IN (" + in + ")", ids);
+        });
+    }
+
+    private static UUID toUuid(byte[] column) {
+        ByteBuffer bytes = ByteBuffer.wrap(column);
+        return new UUID(bytes.getLong(), bytes.getLong());
+    }
+}
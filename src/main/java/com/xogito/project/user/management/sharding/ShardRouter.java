@@ -0,0 +1,36 @@
+package com.xogito.project.user.management.sharding;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Maps a project to its shard. With sharding disabled there is a single shard and every project maps to it.
+ */
+@Component
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardRouter {
+    private final int shardCount;
+
+    public ShardRouter(ShardingProperties properties) {
+        this.shardCount = properties.isEnabled() ? Math.max(1, properties.getShards().size()) : 1;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(UUID projectId) {
+        return shardOf(projectId, shardCount);
+    }
+
+    public static int shardOf(UUID projectId, int shardCount) {
+        // Mix both halves so ids that only differ in a few bits still spread evenly.
+        long hash = projectId.getMostSignificantBits() ^ projectId.getLeastSignificantBits();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) shardCount);
+    }
+}
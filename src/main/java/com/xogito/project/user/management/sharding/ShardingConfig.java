@@ -0,0 +1,62 @@
+package com.xogito.project.user.management.sharding;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Replaces the single {@code spring.datasource} with a routing data source over {@code app.sharding.shards}.
+ * <p>
+ * Projects and their {@code project_user} rows live on the shard their id hashes to. Users are written to shard 0
+ * and replicated to every other shard by {@link UserReplicas}, so memberships keep their foreign keys and joins
+ * stay shard-local. Routing is done by {@link Shards}; flyway migrates every shard.
+ * <p>
+ * Under {@code -PfastStartup} this condition is evaluated when the AOT build runs, so such a build only
+ * supports sharding if it was made with sharding enabled.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    ShardDataSources shardDataSources(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("app.sharding.enabled requires at least one app.sharding.shards entry");
+        }
+        List<DataSource> shards = properties.getShards().stream()
+                .map(shard -> (DataSource) DataSourceBuilder.create()
+                        .url(shard.getUrl())
+                        .username(shard.getUsername())
+                        .password(shard.getPassword())
+                        .build())
+                .toList();
+        return new ShardDataSources(shards);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ShardDataSources shardDataSources) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shardDataSources.all()));
+    }
+
+    @Bean
+    FlywayMigrationStrategy shardedFlywayMigration(ShardDataSources shardDataSources) {
+        return flyway -> {
+            for (DataSource shard : shardDataSources.all()) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shard)
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.xogito.project.user.management.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+    /** Partition projects across {@link #shards} instead of using spring.datasource. */
+    private boolean enabled;
+    /** Shard databases; a project lives on shard {@code hash(projectId) mod shards.size()}. */
+    private List<Shard> shards = new ArrayList<>();
+    /** Threads used to query shards in parallel. */
+    private int threads = 8;
+    /** Run {@link ShardRebalancer} on startup and exit. */
+    private boolean rebalance;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
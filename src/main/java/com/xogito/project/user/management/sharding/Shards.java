@@ -0,0 +1,216 @@
+package com.xogito.project.user.management.sharding;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs repository work on the right shard.
+ * <p>
+ * {@link #onProjectShard} routes the calling thread, so it also works inside a {@code @Transactional} method as
+ * long as no statement ran before it: the connection is only taken at the first statement. The scatter methods
+ * run one task per shard in parallel, each in its own transaction, so they are not atomic across shards.
+ * They must not be nested.
+ * <p>
+ * With a single shard every method simply runs the work on the calling thread, inside the caller's transaction;
+ * the {@code inTransaction} methods open one where the caller has none.
+ */
+@Component
+public class Shards {
+    /** The shard holding the authoritative copy of every user; see {@link UserReplicas}. */
+    public static final int USER_SHARD = 0;
+
+    // Binary UUID columns sort as unsigned bytes.
+    private static final Comparator<UUID> ID_ORDER = Comparator
+            .<UUID>comparingLong(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final ShardRouter router;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNew;
+    private final ExecutorService executor;
+
+    public Shards(ShardRouter router, PlatformTransactionManager transactionManager, ShardingProperties properties) {
+        this.router = router;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (router.shardCount() > 1) {
+            int threads = Math.max(1, properties.getThreads());
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "shard-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public boolean isSharded() {
+        return router.shardCount() > 1;
+    }
+
+    public int shardCount() {
+        return router.shardCount();
+    }
+
+    public int shardOf(UUID projectId) {
+        return router.shardOf(projectId);
+    }
+
+    public <T> T onProjectShard(UUID projectId, Supplier<T> work) {
+        return onShard(router.shardOf(projectId), work);
+    }
+
+    public void runOnProjectShard(UUID projectId, Runnable work) {
+        onShard(router.shardOf(projectId), () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * Runs {@code work} on the project's shard in a new transaction of its own, for operations that
+     * touch several shards one after the other from the same thread.
+     */
+    public <T> T inTransactionOnProjectShard(UUID projectId, Supplier<T> work) {
+        return inTransactionOnShard(router.shardOf(projectId), work);
+    }
+
+    /**
+     * Runs a user write on the {@link #USER_SHARD} in a new transaction of its own, committed before this returns
+     * so that {@link UserReplicas} can copy the result to the other shards.
+     */
+    public <T> T inTransactionOnUserShard(Supplier<T> work) {
+        return inTransactionOnShard(USER_SHARD, work);
+    }
+
+    /**
+     * Runs {@code work} on every shard and returns the results in shard order.
+     */
+    public <T> List<T> onEveryShard(Supplier<T> work) {
+        List<Integer> all = new ArrayList<>(router.shardCount());
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            all.add(shard);
+        }
+        return scatter(all, shard -> work.get());
+    }
+
+    /**
+     * Splits {@code projectIds} by shard and runs {@code work} once per shard that owns any of them.
+     */
+    public <T> List<T> onShardsOf(Collection<UUID> projectIds, Function<List<UUID>, T> work) {
+        if (!isSharded()) {
+            return Collections.singletonList(work.apply(List.copyOf(projectIds)));
+        }
+        Map<Integer, List<UUID>> byShard = new TreeMap<>();
+        for (UUID projectId : projectIds) {
+            byShard.computeIfAbsent(router.shardOf(projectId), shard -> new ArrayList<>()).add(projectId);
+        }
+        return scatter(new ArrayList<>(byShard.keySet()), shard -> work.apply(byShard.get(shard)));
+    }
+
+    /**
+     * Returns one page of a query that spans all shards. Every shard is asked for its first
+     * {@code (pageNumber + 1) * pageSize} rows by id, and the merged rows are cut down to the page.
+     * With a single shard the query runs once with the plain page request.
+     */
+    public <T> List<T> gatherPage(int pageNumber, int pageSize, Function<T, UUID> idOf,
+                                  Function<Pageable, List<T>> query) {
+        if (!isSharded()) {
+            return query.apply(PageRequest.of(pageNumber, pageSize));
+        }
+        Pageable perShard = PageRequest.of(0, (pageNumber + 1) * pageSize, Sort.by("Id"));
+        List<T> merged = new ArrayList<>();
+        onEveryShard(() -> query.apply(perShard)).forEach(merged::addAll);
+        merged.sort(Comparator.comparing(idOf, ID_ORDER));
+        int from = Math.min(merged.size(), pageNumber * pageSize);
+        int to = Math.min(merged.size(), from + pageSize);
+        return new ArrayList<>(merged.subList(from, to));
+    }
+
+    private <T> T inTransactionOnShard(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return transactionTemplate.execute(status -> work.get());
+        }
+        return onShard(shard, () -> requiresNew.execute(status -> work.get()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private <T> List<T> scatter(List<Integer> shards, IntFunction<T> work) {
+        if (!isSharded()) {
+            return Collections.singletonList(work.apply(0));
+        }
+        List<CompletableFuture<T>> tasks = new ArrayList<>(shards.size());
+        for (int shard : shards) {
+            tasks.add(CompletableFuture.supplyAsync(
+                    () -> onShard(shard, () -> transactionTemplate.execute(status -> work.apply(shard))), executor));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        for (CompletableFuture<T> task : tasks) {
+            results.add(await(task));
+        }
+        return results;
+    }
+
+    private static <T> T await(CompletableFuture<T> task) {
+        try {
+            return task.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.xogito.project.user.management.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the users on shards 1..n in line with shard {@value Shards#USER_SHARD}, which holds the authoritative
+ * copy of every user.
+ * <p>
+ * User writes commit on the user shard first and are then copied to the replicas by id: users present on the
+ * user shard are upserted with their version, users gone from it are deleted along with their memberships on the
+ * replica. Copying the same ids again changes nothing, so a replication that failed is repaired by the next write
+ * of the same user or by {@link #reconcile()}, which compares every replica with the user shard.
+ * <p>
+ * Does nothing unless {@code app.sharding.enabled} is set with more than one shard.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserReplicas {
+    private static final int BATCH_SIZE = 1000;
+    private static final String SELECT_USERS = "SELECT id, name, email, email_lower, email_domain, version FROM users";
+    private static final RowMapper<Object[]> USER_ROW = (rs, row) -> new Object[]{
+            rs.getBytes(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getLong(6)};
+
+    private final ObjectProvider<ShardDataSources> shardDataSources;
+
+    /**
+     * Copies the current state of the given users from the user shard to every replica. A replica that fails is
+     * logged and left to the next reconciliation, since the write itself already committed on the user shard.
+     *
+     * @return the memberships deleted on the replicas together with users that no longer exist
+     */
+    public int replicate(Collection<UUID> userIds) {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        if (shards == null || shards.size() < 2 || userIds.isEmpty()) {
+            return 0;
+        }
+        JdbcTemplate authority = new JdbcTemplate(shards.get(Shards.USER_SHARD));
+        List<byte[]> ids = userIds.stream().distinct().map(UserReplicas::toBytes).toList();
+        List<Object[]> present = new ArrayList<>();
+        for (List<byte[]> batch : batches(ids)) {
+            present.addAll(authority.query(SELECT_USERS + " WHERE id IN (" + placeholders(batch.size()) + ")",
+                    USER_ROW, batch.toArray()));
+        }
+        Set<ByteBuffer> presentIds = new HashSet<>();
+        present.forEach(row -> presentIds.add(ByteBuffer.wrap((byte[]) row[0])));
+        List<byte[]> gone = ids.stream().filter(id -> !presentIds.contains(ByteBuffer.wrap(id))).toList();
+
+        int membershipsDeleted = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shard == Shards.USER_SHARD) {
+                continue;
+            }
+            try {
+                membershipsDeleted += write(shards.get(shard), present, gone);
+            } catch (RuntimeException e) {
+                log.warn("Replicating {} user(s) to shard {} failed, left to the next reconciliation",
+                        ids.size(), shard, e);
+            }
+        }
+        return membershipsDeleted;
+    }
+
+    /**
+     * Compares every replica with the user shard and repairs the differences.
+     *
+     * @return the replica rows that were upserted or deleted
+     */
+    public long reconcile() {
+        ShardDataSources shards = shardDataSources.getIfAvailable();
+        return shards == null ? 0 : reconcile(shards);
+    }
+
+    public long reconcile(ShardDataSources shards) {
+        long repaired = 0;
+        for (int shard = 0; shard < shards.size(); shard++) {
+            if (shard != Shards.USER_SHARD) {
+                repaired += reconcile(new JdbcTemplate(shards.get(Shards.USER_SHARD)), shards.get(shard));
+            }
+        }
+        return repaired;
+    }
+
+    private long reconcile(JdbcTemplate authority, DataSource replicaDataSource) {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        long repaired = 0;
+
+        // Users the user shard no longer has.
+        byte[] after = new byte[16];
+        while (true) {
+            List<byte[]> ids = replica.query("SELECT id FROM users WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, row) -> rs.getBytes(1), (Object) after);
+            if (ids.isEmpty()) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+            Set<ByteBuffer> existing = new HashSet<>();
+            authority.query("SELECT id FROM users WHERE id IN (" + placeholders(ids.size()) + ")",
+                    (rs, row) -> existing.add(ByteBuffer.wrap(rs.getBytes(1))), ids.toArray());
+            List<byte[]> gone = ids.stream().filter(id -> !existing.contains(ByteBuffer.wrap(id))).toList();
+            if (!gone.isEmpty()) {
+                write(replicaDataSource, List.of(), gone);
+                repaired += gone.size();
+            }
+        }
+
+        // Users missing from the replica or at another version there.
+        after = new byte[16];
+        while (true) {
+            List<Object[]> users = authority.query(SELECT_USERS + " WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                    USER_ROW, (Object) after);
+            if (users.isEmpty()) {
+                break;
+            }
+            after = (byte[]) users.get(users.size() - 1)[0];
+            Map<ByteBuffer, Long> versions = new HashMap<>();
+            replica.query("SELECT id, version FROM users WHERE id IN (" + placeholders(users.size()) + ")",
+                    (rs, row) -> versions.put(ByteBuffer.wrap(rs.getBytes(1)), rs.getLong(2)),
+                    users.stream().map(user -> user[0]).toArray());
+            List<Object[]> stale = users.stream()
+                    .filter(user -> isNewer(user, versions.get(ByteBuffer.wrap((byte[]) user[0]))))
+                    .toList();
+            if (!stale.isEmpty()) {
+                write(replicaDataSource, stale, List.of());
+                repaired += stale.size();
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * Applies user rows and deletions to one replica in a single transaction. Replications of the same user can
+     * arrive out of order, so a row is only written over an older version: the replica's versions are read
+     * with {@code FOR UPDATE} first, and the upsert itself is guarded the same way.
+     */
+    private int write(DataSource replicaDataSource, List<Object[]> users, List<byte[]> gone) {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        Integer membershipsDeleted = new TransactionTemplate(new DataSourceTransactionManager(replicaDataSource)).execute(status -> {
+            int deleted = 0;
+            for (List<byte[]> batch : batches(gone)) {
+                String in = placeholders(batch.size());
+                Object[] ids = batch.toArray();
+                replica.update("UPDATE projects p "
+                        + "JOIN (SELECT project_id, COUNT(*) AS members FROM project_user WHERE user_id IN (" + in + ") "
+                        + "GROUP BY project_id) pu ON pu.project_id = p.id "
+                        + "SET p.member_count = p.member_count - pu.members, p.version = p.version + 1", ids);
+                deleted += replica.update("DELETE FROM project_user WHERE user_id IN (" + in + ")", ids);
+                replica.update("DELETE FROM users WHERE id IN (" + in + ")", ids);
+            }
+            for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+                List<Object[]> candidates = users.subList(from, Math.min(users.size(), from + BATCH_SIZE));
+                Map<ByteBuffer, Long> versions = new HashMap<>();
+                replica.query("SELECT id, version FROM users WHERE id IN (" + placeholders(candidates.size()) + ") FOR UPDATE",
+                        (rs, row) -> versions.put(ByteBuffer.wrap(rs.getBytes(1)), rs.getLong(2)),
+                        candidates.stream().map(user -> user[0]).toArray());
+                List<Object[]> batch = candidates.stream()
+                        .filter(user -> isNewer(user, versions.get(ByteBuffer.wrap((byte[]) user[0]))))
+                        .toList();
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                // A stale replica row may still hold an email that has since moved to another user. Clearing it
+                // first leaves the id as the only key the upsert can match; the stale row is repaired in turn.
+                List<Object> emailsAndIds = new ArrayList<>();
+                batch.forEach(user -> emailsAndIds.add(user[2]));
+                batch.forEach(user -> emailsAndIds.add(user[0]));
+                replica.update("UPDATE users SET email = NULL, email_lower = NULL, email_domain = NULL "
+                        + "WHERE email IN (" + placeholders(batch.size()) + ") "
+                        + "AND id NOT IN (" + placeholders(batch.size()) + ")", emailsAndIds.toArray());
+                // MySQL assigns left to right, so version has to come last for the guards to see the old one.
+                replica.batchUpdate("INSERT INTO users (id, name, email, email_lower, email_domain, version) "
+                        + "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+                        + "name = IF(VALUES(version) > version, VALUES(name), name), "
+                        + "email = IF(VALUES(version) > version, VALUES(email), email), "
+                        + "email_lower = IF(VALUES(version) > version, VALUES(email_lower), email_lower), "
+                        + "email_domain = IF(VALUES(version) > version, VALUES(email_domain), email_domain), "
+                        + "version = GREATEST(version, VALUES(version))", batch);
+            }
+            return deleted;
+        });
+        return membershipsDeleted == null ? 0 : membershipsDeleted;
+    }
+
+    // Whether a user row from the user shard is ahead of the replica's version of it, or missing there.
+    private static boolean isNewer(Object[] user, Long replicaVersion) {
+        return replicaVersion == null || (Long) user[5] > replicaVersion;
+    }
+
+    private static List<List<byte[]>> batches(List<byte[]> ids) {
+        List<List<byte[]>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            batches.add(ids.subList(from, Math.min(ids.size(), from + BATCH_SIZE)));
+        }
+        return batches;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,37 @@
+package com.xogito.project.user.management.snapshot;
+
+/**
+ * Layout of a dataset snapshot file:
+ * <pre>
+ * header   : magic "PUMSNAP" + version byte
+ * chunk*   : section byte, record count (int), payload length (int), CRC32 of payload (int), payload
+ * end      : section byte {@link #END}
+ * </pre>
+ * Sections appear in the order users, projects, memberships, each split into chunks of at most
+ * {@link #CHUNK_RECORDS} records. Records are fixed field sequences: UUIDs as 16 raw bytes, strings as an
+ * unsigned short UTF-8 length ({@link #NULL_STRING} for null) followed by the bytes, row versions as a long.
+ * All numbers are big-endian.
+ * <pre>
+ * user       : id, name, email, version
+ * project    : id, name, description, version
+ * membership : project id, user id
+ * </pre>
+ * Version 2 added the row versions, so restored rows keep the ETags clients already hold.
+ */
+public final class SnapshotFormat {
+    static final byte[] MAGIC = {'P', 'U', 'M', 'S', 'N', 'A', 'P'};
+    static final byte VERSION = 2;
+    static final int HEADER_LENGTH = MAGIC.length + 1;
+    static final int CHUNK_HEADER_LENGTH = 1 + 4 + 4 + 4;
+    static final int NULL_STRING = 0xFFFF;
+
+    public static final int CHUNK_RECORDS = 8192;
+
+    public static final byte END = 0;
+    public static final byte USERS = 1;
+    public static final byte PROJECTS = 2;
+    public static final byte MEMBERSHIPS = 3;
+
+    private SnapshotFormat() {
+    }
+}
@@ -0,0 +1,14 @@
+package com.xogito.project.user.management.snapshot;
+
+import java.io.IOException;
+
+/**
+ * The file is not a readable snapshot: wrong magic or version, a chunk failing its checksum, or a file cut short.
+ * Unlike other {@link IOException}s it points at the file's contents rather than at the server's storage.
+ */
+public class SnapshotFormatException extends IOException {
+
+    public SnapshotFormatException(String message) {
+        super(message);
+    }
+}
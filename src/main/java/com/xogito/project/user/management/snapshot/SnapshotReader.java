@@ -0,0 +1,142 @@
+package com.xogito.project.user.management.snapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter}. Each chunk's payload is memory-mapped on its own,
+ * so files larger than a single mapping are fine and only the chunk being loaded needs to be resident.
+ */
+public class SnapshotReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer chunkHeader = ByteBuffer.allocate(SnapshotFormat.CHUNK_HEADER_LENGTH);
+    private long position;
+
+    public SnapshotReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_LENGTH);
+            readFully(header, 0);
+            byte[] magic = new byte[SnapshotFormat.MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, SnapshotFormat.MAGIC)) {
+                throw new SnapshotFormatException(file.getFileName() + " is not a snapshot file");
+            }
+            byte version = header.get();
+            if (version != SnapshotFormat.VERSION) {
+                throw new SnapshotFormatException("Unsupported snapshot version " + version);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        position = SnapshotFormat.HEADER_LENGTH;
+    }
+
+    /**
+     * Returns the next chunk, or {@code null} once the end marker is reached.
+     */
+    public Chunk nextChunk() throws IOException {
+        ByteBuffer section = ByteBuffer.allocate(1);
+        readFully(section, position);
+        if (section.get() == SnapshotFormat.END) {
+            return null;
+        }
+        chunkHeader.clear();
+        readFully(chunkHeader, position);
+        byte type = chunkHeader.get();
+        int records = chunkHeader.getInt();
+        int length = chunkHeader.getInt();
+        int checksum = chunkHeader.getInt();
+        if (length < 0) {
+            throw new SnapshotFormatException("Snapshot chunk at offset " + position + " is corrupt");
+        }
+        // A mapping past the end of the file is not an error until it is read, so check the length first.
+        if (position + SnapshotFormat.CHUNK_HEADER_LENGTH + length > channel.size()) {
+            throw new SnapshotFormatException("Snapshot is truncated at offset " + position);
+        }
+
+        MappedByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY,
+                position + SnapshotFormat.CHUNK_HEADER_LENGTH, length);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new SnapshotFormatException("Snapshot chunk at offset " + position + " is corrupt");
+        }
+        position += SnapshotFormat.CHUNK_HEADER_LENGTH + length;
+        return new Chunk(type, records, payload);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        long at = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, at);
+            if (read < 0) {
+                throw new SnapshotFormatException("Snapshot is truncated at offset " + at);
+            }
+            at += read;
+        }
+        buffer.flip();
+    }
+
+    public static final class Chunk {
+        private final byte section;
+        private final int records;
+        private final ByteBuffer payload;
+
+        private Chunk(byte section, int records, ByteBuffer payload) {
+            this.section = section;
+            this.records = records;
+            this.payload = payload;
+        }
+
+        public byte section() {
+            return section;
+        }
+
+        public int records() {
+            return records;
+        }
+
+        /**
+         * Reads a UUID in the 16-byte form the {@code BINARY(16)} columns store.
+         */
+        public byte[] readUuidBytes() {
+            byte[] id = new byte[16];
+            payload.get(id);
+            return id;
+        }
+
+        public UUID readUuid() {
+            return new UUID(payload.getLong(), payload.getLong());
+        }
+
+        public long readLong() {
+            return payload.getLong();
+        }
+
+        public String readString() {
+            int length = Short.toUnsignedInt(payload.getShort());
+            if (length == SnapshotFormat.NULL_STRING) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            payload.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
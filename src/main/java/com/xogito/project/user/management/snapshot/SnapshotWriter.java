@@ -0,0 +1,131 @@
+package com.xogito.project.user.management.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Writes a snapshot in the {@link SnapshotFormat} layout. Records are buffered one chunk at a time, so memory
+ * use is bounded by the chunk size whatever the size of the dataset.
+ */
+public class SnapshotWriter implements Closeable {
+    private final DataOutputStream out;
+    private final ChunkBuffer chunkBytes = new ChunkBuffer();
+    private final DataOutputStream chunk = new DataOutputStream(chunkBytes);
+    private final CRC32 crc = new CRC32();
+
+    private byte section = SnapshotFormat.END;
+    private int chunkRecords;
+    private long bytesWritten;
+
+    public SnapshotWriter(OutputStream target) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(target, 1 << 16));
+        out.write(SnapshotFormat.MAGIC);
+        out.writeByte(SnapshotFormat.VERSION);
+        bytesWritten = SnapshotFormat.HEADER_LENGTH;
+    }
+
+    public void writeUser(UUID id, String name, String email, long version) throws IOException {
+        startRecord(SnapshotFormat.USERS);
+        writeUuid(id);
+        writeString(name);
+        writeString(email);
+        chunk.writeLong(version);
+        endRecord();
+    }
+
+    public void writeProject(UUID id, String name, String description, long version) throws IOException {
+        startRecord(SnapshotFormat.PROJECTS);
+        writeUuid(id);
+        writeString(name);
+        writeString(description);
+        chunk.writeLong(version);
+        endRecord();
+    }
+
+    public void writeMembership(UUID projectId, UUID userId) throws IOException {
+        startRecord(SnapshotFormat.MEMBERSHIPS);
+        writeUuid(projectId);
+        writeUuid(userId);
+        endRecord();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushChunk();
+        out.writeByte(SnapshotFormat.END);
+        bytesWritten++;
+        out.close();
+    }
+
+    private void startRecord(byte recordSection) throws IOException {
+        if (recordSection < section) {
+            throw new IllegalStateException("Sections must be written in order users, projects, memberships");
+        }
+        if (recordSection != section) {
+            flushChunk();
+            section = recordSection;
+        }
+    }
+
+    private void endRecord() throws IOException {
+        if (++chunkRecords == SnapshotFormat.CHUNK_RECORDS) {
+            flushChunk();
+        }
+    }
+
+    private void flushChunk() throws IOException {
+        if (chunkRecords == 0) {
+            return;
+        }
+        crc.reset();
+        crc.update(chunkBytes.buffer(), 0, chunkBytes.size());
+        out.writeByte(section);
+        out.writeInt(chunkRecords);
+        out.writeInt(chunkBytes.size());
+        out.writeInt((int) crc.getValue());
+        chunkBytes.writeTo(out);
+        bytesWritten += SnapshotFormat.CHUNK_HEADER_LENGTH + chunkBytes.size();
+        chunkBytes.reset();
+        chunkRecords = 0;
+    }
+
+    private void writeUuid(UUID id) throws IOException {
+        chunk.writeLong(id.getMostSignificantBits());
+        chunk.writeLong(id.getLeastSignificantBits());
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            chunk.writeShort(SnapshotFormat.NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= SnapshotFormat.NULL_STRING) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long for a snapshot");
+        }
+        chunk.writeShort(bytes.length);
+        chunk.write(bytes);
+    }
+
+    // Exposes the backing array so the checksum does not need a copy of every chunk.
+    private static final class ChunkBuffer extends ByteArrayOutputStream {
+        private ChunkBuffer() {
+            super(1 << 20);
+        }
+
+        private byte[] buffer() {
+            return buf;
+        }
+    }
+}
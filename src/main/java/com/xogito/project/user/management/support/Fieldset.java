@@ -0,0 +1,63 @@
+package com.xogito.project.user.management.support;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The fields a client asked for with {@code ?fields=id,name}. Repositories select only these columns and
+ * the response only carries these keys.
+ * <p>
+ * Field names are the JSON property names; they are kept in the order of the allowed list so responses
+ * have a stable shape whatever order the client used.
+ */
+@Getter
+@EqualsAndHashCode
+public final class Fieldset {
+    private final List<String> names;
+
+    private Fieldset(List<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * This fieldset plus {@code name}, for callers that need a column the client did not ask for.
+     */
+    public Fieldset including(String name) {
+        if (names.contains(name)) {
+            return this;
+        }
+        List<String> extended = new ArrayList<>(names.size() + 1);
+        extended.add(name);
+        extended.addAll(names);
+        return new Fieldset(List.copyOf(extended));
+    }
+
+    public static Fieldset parse(String requested, List<String> allowed) {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String field : requested.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected any of " + allowed);
+            }
+            wanted.add(name);
+        }
+        if (wanted.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one of " + allowed);
+        }
+        List<String> names = new ArrayList<>(wanted.size());
+        for (String name : allowed) {
+            if (wanted.contains(name)) {
+                names.add(name);
+            }
+        }
+        return new Fieldset(List.copyOf(names));
+    }
+}
@@ -0,0 +1,147 @@
+package com.xogito.project.user.management.support;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight deduplication of concurrent lookups.
+ * <p>
+ * Callers asking for the same key of the same flight while a load is running wait for that load
+ * and share its result (or its exception) instead of issuing their own query. Nothing is cached:
+ * once the load finishes the next call starts a new one.
+ * <p>
+ * Per-flight counters are published as {@code lookup.coalescing.calls},
+ * {@code lookup.coalescing.coalesced} and {@code lookup.coalescing.in-flight}.
+ */
+@Component
+public class LookupCoalescer implements MeterBinder {
+
+    private final ConcurrentMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FlightStats> stats = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String flight, Object key, Supplier<V> loader) {
+        FlightStats flightStats = statsFor(flight);
+        flightStats.calls.increment();
+
+        FlightKey flightKey = new FlightKey(flight, key);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, call);
+        if (leader != null) {
+            flightStats.coalesced.increment();
+            return (V) await(leader);
+        }
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, call);
+        }
+    }
+
+    public long callCount(String flight) {
+        FlightStats flightStats = stats.get(flight);
+        return flightStats == null ? 0 : flightStats.calls.sum();
+    }
+
+    public long coalescedCount(String flight) {
+        FlightStats flightStats = stats.get(flight);
+        return flightStats == null ? 0 : flightStats.coalesced.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        this.registry = meterRegistry;
+        stats.forEach((flight, flightStats) -> register(meterRegistry, flight, flightStats));
+    }
+
+    private FlightStats statsFor(String flight) {
+        FlightStats existing = stats.get(flight);
+        if (existing != null) {
+            return existing;
+        }
+        return stats.computeIfAbsent(flight, name -> {
+            FlightStats created = new FlightStats();
+            MeterRegistry meterRegistry = registry;
+            if (meterRegistry != null) {
+                register(meterRegistry, name, created);
+            }
+            return created;
+        });
+    }
+
+    private void register(MeterRegistry meterRegistry, String flight, FlightStats flightStats) {
+        FunctionCounter.builder("lookup.coalescing.calls", flightStats, s -> s.calls.sum())
+                .description("Lookups requested, including coalesced ones")
+                .tag("flight", flight)
+                .register(meterRegistry);
+        FunctionCounter.builder("lookup.coalescing.coalesced", flightStats, s -> s.coalesced.sum())
+                .description("Lookups that joined an in-flight load instead of querying")
+                .tag("flight", flight)
+                .register(meterRegistry);
+        Gauge.builder("lookup.coalescing.in-flight", inFlight, map -> map.keySet().stream()
+                        .filter(key -> key.flight.equals(flight))
+                        .count())
+                .description("Loads currently running")
+                .tag("flight", flight)
+                .register(meterRegistry);
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class FlightStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+    }
+
+    private static final class FlightKey {
+        private final String flight;
+        private final Object key;
+
+        private FlightKey(String flight, Object key) {
+            this.flight = flight;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FlightKey other)) return false;
+            return flight.equals(other.flight) && Objects.equals(key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * flight.hashCode() + Objects.hashCode(key);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.xogito.project.user.management.support;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory user/project membership graph. Users and projects are mapped to dense int ids and each side's
+ * adjacency is a compressed {@link RoaringBitmap}, so membership checks are a bitmap lookup and overlap
+ * queries are bitmap AND/OR operations instead of joins over {@code project_user}.
+ * <p>
+ * Adding and removing edges is idempotent. Ids of deleted users and projects are not reused.
+ */
+public class MembershipGraph {
+    private static final RoaringBitmap NONE = new RoaringBitmap();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final UuidIntIndex users = new UuidIntIndex();
+    private final UuidIntIndex projects = new UuidIntIndex();
+    private RoaringBitmap[] projectsOfUser = new RoaringBitmap[64];
+    private RoaringBitmap[] usersOfProject = new RoaringBitmap[64];
+
+    public void add(UUID projectId, UUID userId) {
+        lock.writeLock().lock();
+        try {
+            int project = projects.idOrAssign(projectId);
+            int user = users.idOrAssign(userId);
+            usersOfProject = ensureCapacity(usersOfProject, project);
+            projectsOfUser = ensureCapacity(projectsOfUser, user);
+            usersOfProject[project].add(user);
+            projectsOfUser[user].add(project);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID projectId, UUID userId) {
+        lock.writeLock().lock();
+        try {
+            int project = projects.idOf(projectId);
+            int user = users.idOf(userId);
+            if (project < 0 || user < 0) {
+                return;
+            }
+            adjacency(usersOfProject, project).remove(user);
+            adjacency(projectsOfUser, user).remove(project);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProject(UUID projectId) {
+        lock.writeLock().lock();
+        try {
+            int project = projects.idOf(projectId);
+            if (project < 0) {
+                return;
+            }
+            RoaringBitmap members = adjacency(usersOfProject, project);
+            members.forEach((int user) -> projectsOfUser[user].remove(project));
+            members.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeUser(UUID userId) {
+        lock.writeLock().lock();
+        try {
+            int user = users.idOf(userId);
+            if (user < 0) {
+                return;
+            }
+            RoaringBitmap memberships = adjacency(projectsOfUser, user);
+            memberships.forEach((int project) -> usersOfProject[project].remove(user));
+            memberships.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isMember(UUID projectId, UUID userId) {
+        lock.readLock().lock();
+        try {
+            int project = projects.idOf(projectId);
+            int user = users.idOf(userId);
+            return project >= 0 && user >= 0 && adjacency(usersOfProject, project).contains(user);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<UUID> commonProjects(UUID userId, UUID otherUserId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap common = RoaringBitmap.and(projectsOf(userId), projectsOf(otherUserId));
+            return toUuids(common, projects, Integer.MAX_VALUE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Users sharing at least one project with {@code userId}, excluding the user itself.
+     */
+    public List<UUID> collaborators(UUID userId, int limit) {
+        lock.readLock().lock();
+        try {
+            int user = users.idOf(userId);
+            if (user < 0) {
+                return List.of();
+            }
+            RoaringBitmap collaborators = new RoaringBitmap();
+            adjacency(projectsOfUser, user).forEach((int project) -> collaborators.or(usersOfProject[project]));
+            collaborators.remove(user);
+            return toUuids(collaborators, users, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts the bitmaps after a bulk load.
+     */
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            for (RoaringBitmap bitmap : usersOfProject) {
+                if (bitmap != null) {
+                    bitmap.runOptimize();
+                }
+            }
+            for (RoaringBitmap bitmap : projectsOfUser) {
+                if (bitmap != null) {
+                    bitmap.runOptimize();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private RoaringBitmap projectsOf(UUID userId) {
+        int user = users.idOf(userId);
+        return user < 0 ? NONE : adjacency(projectsOfUser, user);
+    }
+
+    private static RoaringBitmap adjacency(RoaringBitmap[] adjacency, int id) {
+        RoaringBitmap bitmap = id < adjacency.length ? adjacency[id] : null;
+        return bitmap == null ? NONE : bitmap;
+    }
+
+    private static RoaringBitmap[] ensureCapacity(RoaringBitmap[] adjacency, int id) {
+        RoaringBitmap[] sized = id < adjacency.length
+                ? adjacency
+                : Arrays.copyOf(adjacency, Math.max(adjacency.length * 2, id + 1));
+        if (sized[id] == null) {
+            sized[id] = new RoaringBitmap();
+        }
+        return sized;
+    }
+
+    private static List<UUID> toUuids(RoaringBitmap ids, UuidIntIndex index, int limit) {
+        List<UUID> uuids = new ArrayList<>(Math.min(limit, ids.getCardinality()));
+        IntIterator iterator = ids.getIntIterator();
+        while (uuids.size() < limit && iterator.hasNext()) {
+            uuids.add(index.uuidOf(iterator.next()));
+        }
+        return uuids;
+    }
+}
@@ -0,0 +1,86 @@
+package com.xogito.project.user.management.support;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Assigns dense int ids (0, 1, 2, ...) to UUIDs without boxing: an open-addressing table of ids plus the
+ * UUID halves stored in parallel long arrays. Not thread-safe; {@link MembershipGraph} guards access.
+ */
+final class UuidIntIndex {
+    private static final int EMPTY = -1;
+
+    private long[] mostSignificant = new long[16];
+    private long[] leastSignificant = new long[16];
+    private int[] slots = newSlots(32);
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int idOf(UUID uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        int mask = slots.length - 1;
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot];
+            if (id == EMPTY) {
+                return EMPTY;
+            }
+            if (mostSignificant[id] == msb && leastSignificant[id] == lsb) {
+                return id;
+            }
+        }
+    }
+
+    int idOrAssign(UUID uuid) {
+        int existing = idOf(uuid);
+        if (existing != EMPTY) {
+            return existing;
+        }
+        if ((size + 1) * 4 > slots.length * 3) {
+            rehash(slots.length * 2);
+        }
+        if (size == mostSignificant.length) {
+            mostSignificant = Arrays.copyOf(mostSignificant, size * 2);
+            leastSignificant = Arrays.copyOf(leastSignificant, size * 2);
+        }
+        int id = size++;
+        mostSignificant[id] = uuid.getMostSignificantBits();
+        leastSignificant[id] = uuid.getLeastSignificantBits();
+        insert(id);
+        return id;
+    }
+
+    UUID uuidOf(int id) {
+        return new UUID(mostSignificant[id], leastSignificant[id]);
+    }
+
+    private void insert(int id) {
+        int mask = slots.length - 1;
+        int slot = hash(mostSignificant[id], leastSignificant[id]) & mask;
+        while (slots[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id;
+    }
+
+    private void rehash(int capacity) {
+        slots = newSlots(capacity);
+        for (int id = 0; id < size; id++) {
+            insert(id);
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long mixed = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
@@ -0,0 +1,149 @@
+package com.xogito.project.user.management.warmup;
+
+import com.xogito.project.user.management.model.Project;
+import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.service.MembershipAnalyticsService;
+import com.xogito.project.user.management.service.MembershipService;
+import com.xogito.project.user.management.sharding.Shards;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the membership graph, the membership analytics and the most-assigned projects with their members
+ * before the application takes traffic, so the first requests after a deploy do not all hit cold buffer pools.
+ * <p>
+ * Runs as an {@link ApplicationRunner}: Spring Boot only switches readiness to {@code ACCEPTING_TRAFFIC} once
+ * runners return, so readiness is held until warm-up completes or {@code app.warmup.timeout} passes. Tasks
+ * still running at the timeout are left to finish in the background.
+ * <p>
+ * When sharded, every shard warms its own hottest projects.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(WarmupProperties.class)
+public class StartupWarmup implements ApplicationRunner {
+    private static final Sort HOTTEST_FIRST = Sort.by(Sort.Direction.DESC, "memberCount");
+
+    private final ProjectRepository projectRepository;
+    private final MembershipService membershipService;
+    private final MembershipAnalyticsService membershipAnalyticsService;
+    private final WarmupProperties properties;
+    private final Shards shards;
+
+    @Getter
+    private final WarmupReport report = new WarmupReport();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        report.start();
+        long started = System.nanoTime();
+        ThreadPoolExecutor executor = newExecutor();
+        try {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            tasks.add(CompletableFuture.runAsync(() -> {
+                membershipService.rebuild();
+                report.membershipGraphLoaded();
+            }, executor));
+            tasks.add(CompletableFuture.runAsync(() -> {
+                membershipAnalyticsService.recompute();
+                report.analyticsLoaded();
+            }, executor));
+            int chunkSize = Math.max(1, properties.getChunkSize());
+            int chunks = (properties.getProjects() + chunkSize - 1) / chunkSize;
+            long deadline = started + properties.getTimeout().toNanos();
+            AtomicInteger nextChunk = new AtomicInteger();
+            for (int worker = 0; worker < Math.min(executor.getCorePoolSize(), chunks); worker++) {
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    int page;
+                    while ((page = nextChunk.getAndIncrement()) < chunks && System.nanoTime() < deadline) {
+                        loadHottestProjects(page, chunkSize);
+                    }
+                }, executor));
+            }
+            report.finish(await(tasks), elapsedMillis(started));
+        } finally {
+            executor.shutdown();
+        }
+        log.info("Warm-up {} in {} ms: {} projects, {} users, membership graph {}, analytics {}",
+                report.getState(), report.getDurationMillis(), report.getProjectsLoaded().get(),
+                report.getUsersLoaded().get(), report.isMembershipGraphLoaded() ? "loaded" : "pending",
+                report.isAnalyticsLoaded() ? "loaded" : "pending");
+    }
+
+    private void loadHottestProjects(int page, int chunkSize) {
+        shards.onEveryShard(() -> {
+            loadHottestProjectsOfShard(page, chunkSize);
+            return null;
+        });
+    }
+
+    private void loadHottestProjectsOfShard(int page, int chunkSize) {
+        int remaining = properties.getProjects() - page * chunkSize;
+        List<Project> projects = projectRepository.findAllBy(PageRequest.of(page, chunkSize, HOTTEST_FIRST));
+        if (projects.size() > remaining) {
+            projects = projects.subList(0, remaining);
+        }
+        if (projects.isEmpty()) {
+            return;
+        }
+        report.getProjectsLoaded().addAndGet(projects.size());
+        List<UUID> projectIds = projects.stream().map(Project::getId).toList();
+        int users = projectRepository
+                .findAssignedUsersOfProjects(projectIds, PageRequest.of(0, Math.max(1, properties.getUsersPerChunk())))
+                .size();
+        report.getUsersLoaded().addAndGet(users);
+    }
+
+    private WarmupReport.State await(List<CompletableFuture<Void>> tasks) {
+        try {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                    .get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            return WarmupReport.State.COMPLETED;
+        } catch (TimeoutException e) {
+            log.warn("Warm-up did not finish within {}, reporting ready anyway", properties.getTimeout());
+            return WarmupReport.State.TIMED_OUT;
+        } catch (ExecutionException e) {
+            log.warn("Warm-up failed, reporting ready anyway", e.getCause());
+            return WarmupReport.State.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return WarmupReport.State.FAILED;
+        }
+    }
+
+    private ThreadPoolExecutor newExecutor() {
+        int threads = Math.max(1, properties.getThreads());
+        AtomicInteger counter = new AtomicInteger();
+        // Chunk workers pull pages from a shared counter, so the queue only ever holds a handful of tasks.
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads + 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "warmup-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+}
@@ -0,0 +1,29 @@
+package com.xogito.project.user.management.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component("warmup")
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+    private final StartupWarmup startupWarmup;
+
+    @Override
+    public Health health() {
+        WarmupReport report = startupWarmup.getReport();
+        Health.Builder health = switch (report.getState()) {
+            case PENDING, RUNNING -> Health.outOfService();
+            default -> Health.up();
+        };
+        return health
+                .withDetail("state", report.getState())
+                .withDetail("durationMs", report.getDurationMillis())
+                .withDetail("projectsLoaded", report.getProjectsLoaded().get())
+                .withDetail("usersLoaded", report.getUsersLoaded().get())
+                .withDetail("membershipGraphLoaded", report.isMembershipGraphLoaded())
+                .withDetail("analyticsLoaded", report.isAnalyticsLoaded())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.xogito.project.user.management.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+    /** Readiness is reported once warm-up completes or this much time has passed. */
+    private Duration timeout = Duration.ofSeconds(60);
+    /** Size of the bounded warm-up executor. */
+    private int threads = 4;
+    /** Projects loaded per task. */
+    private int chunkSize = 500;
+    /** Number of projects, by member count, to preload. 0 skips record preloading. */
+    private int projects = 5000;
+    /** Maximum number of members preloaded per chunk of projects. */
+    private int usersPerChunk = 5000;
+}
@@ -0,0 +1,37 @@
+package com.xogito.project.user.management.warmup;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress and outcome of the startup warm-up, exposed through {@link WarmupHealthIndicator}.
+ */
+@Getter
+public class WarmupReport {
+    public enum State { PENDING, RUNNING, COMPLETED, TIMED_OUT, FAILED }
+
+    private volatile State state = State.PENDING;
+    private volatile long durationMillis;
+    private final AtomicInteger projectsLoaded = new AtomicInteger();
+    private final AtomicInteger usersLoaded = new AtomicInteger();
+    private volatile boolean membershipGraphLoaded;
+    private volatile boolean analyticsLoaded;
+
+    void start() {
+        state = State.RUNNING;
+    }
+
+    void finish(State finalState, long millis) {
+        durationMillis = millis;
+        state = finalState;
+    }
+
+    void membershipGraphLoaded() {
+        membershipGraphLoaded = true;
+    }
+
+    void analyticsLoaded() {
+        analyticsLoaded = true;
+    }
+}
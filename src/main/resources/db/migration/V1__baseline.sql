@@ -0,0 +1,27 @@
+-- Schema as previously generated by hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE users
+(
+    id    BINARY(16) NOT NULL,
+    email VARCHAR(255),
+    name  VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE projects
+(
+    id          BINARY(16) NOT NULL,
+    description VARCHAR(255),
+    name        VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE project_user
+(
+    project_id BINARY(16) NOT NULL,
+    user_id    BINARY(16) NOT NULL,
+    CONSTRAINT fk_project_user_project FOREIGN KEY (project_id) REFERENCES projects (id),
+    CONSTRAINT fk_project_user_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,10 @@
+-- Denormalized member count of each project, kept in step with project_user by every membership write.
+-- project_user has no key yet and may hold duplicate rows, which V4 removes, so they are counted once.
+
+ALTER TABLE projects
+    ADD COLUMN member_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE projects p
+    JOIN (SELECT project_id, COUNT(DISTINCT user_id) AS members FROM project_user GROUP BY project_id) pu
+    ON pu.project_id = p.id
+SET p.member_count = pu.members;
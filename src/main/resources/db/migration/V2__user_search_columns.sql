@@ -0,0 +1,15 @@
+-- Normalized email columns and indexes backing UserService#searchUsers.
+-- Every combination of name prefix, email prefix and email domain has an index with a usable prefix.
+
+ALTER TABLE users
+    ADD COLUMN email_lower  VARCHAR(255),
+    ADD COLUMN email_domain VARCHAR(255);
+
+UPDATE users
+SET email_lower  = LOWER(email),
+    email_domain = LOWER(SUBSTRING_INDEX(email, '@', -1));
+
+CREATE INDEX idx_users_name ON users (name);
+CREATE INDEX idx_users_email_lower ON users (email_lower);
+CREATE INDEX idx_users_domain_name ON users (email_domain, name);
+CREATE INDEX idx_users_domain_email_lower ON users (email_domain, email_lower);
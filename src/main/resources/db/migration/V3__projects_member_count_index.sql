@@ -0,0 +1,2 @@
+-- Startup warm-up and analytics read projects ordered by member count.
+CREATE INDEX idx_projects_member_count ON projects (member_count);
@@ -0,0 +1,28 @@
+-- project_user had no key, so duplicate memberships were possible. Rebuild it without duplicates
+-- and with a primary key, which set-based member transfers rely on to skip existing memberships.
+
+CREATE TABLE project_user_keyed
+(
+    project_id BINARY(16) NOT NULL,
+    user_id    BINARY(16) NOT NULL,
+    PRIMARY KEY (project_id, user_id),
+    KEY idx_project_user_user (user_id)
+) ENGINE = InnoDB;
+
+INSERT IGNORE INTO project_user_keyed (project_id, user_id)
+SELECT project_id, user_id
+FROM project_user;
+
+DROP TABLE project_user;
+
+RENAME TABLE project_user_keyed TO project_user;
+
+ALTER TABLE project_user
+    ADD CONSTRAINT fk_project_user_project FOREIGN KEY (project_id) REFERENCES projects (id),
+    ADD CONSTRAINT fk_project_user_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+UPDATE projects p
+    LEFT JOIN (SELECT project_id, COUNT(*) AS members FROM project_user GROUP BY project_id) pu
+    ON pu.project_id = p.id
+SET p.member_count = COALESCE(pu.members, 0)
+WHERE p.member_count <> COALESCE(pu.members, 0);
@@ -0,0 +1,8 @@
+-- Row versions behind the ETags of GET /projects/{id} and GET /users/{id}.
+-- Every write that changes what those endpoints return increments the version of the row.
+
+ALTER TABLE projects
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE users
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
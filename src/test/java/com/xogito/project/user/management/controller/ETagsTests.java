@@ -0,0 +1,61 @@
+package com.xogito.project.user.management.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ETagsTests {
+
+    @Test
+    public void matches_WithoutIfNoneMatch_IsNotConditional() {
+        // Arrange
+        WebRequest request = request(null);
+
+        // Act & Assert
+        assertFalse(ETags.isConditional(request));
+        assertFalse(ETags.matches(request, 3));
+    }
+
+    @Test
+    public void matches_AnyListedTagIncludingWeak() {
+        // Arrange
+        WebRequest request = request("\"1\", W/\"3\"");
+
+        // Act & Assert
+        assertTrue(ETags.isConditional(request));
+        assertTrue(ETags.matches(request, 3));
+        assertTrue(ETags.matches(request, 1));
+        assertFalse(ETags.matches(request, 2));
+    }
+
+    @Test
+    public void matches_Wildcard() {
+        // Act & Assert
+        assertTrue(ETags.matches(request("*"), 7));
+    }
+
+    @Test
+    public void notModified_CarriesVersionAsETag() {
+        // Act
+        ResponseEntity<Object> response = ETags.notModified(4);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    private static WebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/projects/1");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request);
+    }
+}
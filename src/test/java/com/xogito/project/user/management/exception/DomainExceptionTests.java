@@ -0,0 +1,47 @@
+package com.xogito.project.user.management.exception;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DomainExceptionTests {
+
+    @Test
+    public void notFound_HasNoStackTraceAndDescribesId() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+
+        // Act
+        NotFoundException e = NotFoundException.user(id);
+
+        // Assert
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals("User not found with ID: " + id, e.getMessage());
+        assertEquals(id, e.getId());
+    }
+
+    @Test
+    public void noMatches_IsSharedAndCannotBeModified() {
+        // Arrange
+        NotFoundException noUsers = NotFoundException.noUsers();
+
+        // Act
+        noUsers.addSuppressed(new IllegalStateException());
+        noUsers.setStackTrace(new StackTraceElement[]{new StackTraceElement("Caller", "call", null, 1)});
+
+        // Assert
+        assertSame(noUsers, NotFoundException.noUsers());
+        assertEquals(0, noUsers.getSuppressed().length);
+        assertEquals(0, noUsers.getStackTrace().length);
+        assertEquals("No users found with the provided search criteria.", noUsers.getMessage());
+    }
+
+    @Test
+    public void duplicateEmail_IsShared() {
+        // Act & Assert
+        assertSame(DuplicateEmailException.instance(), DuplicateEmailException.instance());
+        assertEquals("Email already exists", DuplicateEmailException.instance().getMessage());
+    }
+}
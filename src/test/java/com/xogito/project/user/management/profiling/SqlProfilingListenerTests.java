@@ -0,0 +1,70 @@
+package com.xogito.project.user.management.profiling;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlProfilingListenerTests {
+    private final SqlProfilingListener listener = new SqlProfilingListener(new SqlProfileProperties());
+
+    @AfterEach
+    public void tearDown() {
+        SqlProfile.end();
+    }
+
+    @Test
+    public void afterQuery_ProfileActive_RecordsCountAndTime() {
+        // Arrange
+        SqlProfile profile = SqlProfile.begin();
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(7);
+
+        // Act
+        listener.afterQuery(execInfo, List.of(new QueryInfo("SELECT 1")));
+        listener.afterQuery(execInfo, List.of(new QueryInfo("SELECT 2")));
+
+        // Assert
+        assertEquals(2, profile.getStatements());
+        assertEquals(14, profile.getElapsedMillis());
+        assertEquals("count=2; time=14ms", profile.toHeaderValue());
+    }
+
+    @Test
+    public void afterQuery_NoProfile_DoesNotFail() {
+        // Arrange
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setElapsedTime(500);
+
+        // Act and Assert
+        assertDoesNotThrow(() -> listener.afterQuery(execInfo, List.of(new QueryInfo("SELECT 1"))));
+    }
+
+    @Test
+    public void shapeOf_ReportsTypesNotValues() throws Exception {
+        // Arrange
+        Method setObject = PreparedStatement.class.getMethod("setObject", int.class, Object.class);
+        Method setBytes = PreparedStatement.class.getMethod("setBytes", int.class, byte[].class);
+        Method setNull = PreparedStatement.class.getMethod("setNull", int.class, int.class);
+        List<ParameterSetOperation> parameters = List.of(
+                new ParameterSetOperation(setObject, new Object[]{1, UUID.randomUUID()}),
+                new ParameterSetOperation(setObject, new Object[]{2, "secret@example.com"}),
+                new ParameterSetOperation(setBytes, new Object[]{3, new byte[16]}),
+                new ParameterSetOperation(setNull, new Object[]{4, Types.VARCHAR}));
+
+        // Act
+        String shape = SqlProfilingListener.shapeOf(parameters);
+
+        // Assert
+        assertEquals("[UUID, String, byte[16], null]", shape);
+    }
+}
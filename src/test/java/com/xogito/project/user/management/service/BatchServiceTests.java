@@ -0,0 +1,199 @@
+package com.xogito.project.user.management.service;
+
+import com.xogito.project.user.management.dto.BatchOperationDTO;
+import com.xogito.project.user.management.dto.BatchOperationDTO.Type;
+import com.xogito.project.user.management.dto.BatchOperationResultDTO;
+import com.xogito.project.user.management.dto.BatchOperationResultDTO.Status;
+import com.xogito.project.user.management.event.MembershipChangedEvent;
+import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.repository.UserRepository;
+import com.xogito.project.user.management.service.impl.BatchServiceImpl;
+import com.xogito.project.user.management.sharding.Shards;
+import com.xogito.project.user.management.sharding.TestShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BatchServiceTests {
+    @InjectMocks
+    private BatchServiceImpl batchService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ProjectRepository projectRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private Shards shards = TestShards.single();
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            int[] counts = new int[invocation.<List<?>>getArgument(1).size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+    }
+
+    @Test
+    public void execute_ReferencesEarlierCreates_WritesOneBatchPerStatement() {
+        // Arrange
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(Type.CREATE_USER, "alice", "Alice", "alice@example.com", null, null, null),
+                new BatchOperationDTO(Type.CREATE_USER, "bob", "Bob", "bob@example.com", null, null, null),
+                new BatchOperationDTO(Type.CREATE_PROJECT, "apollo", "Apollo", null, "Moon", null, null),
+                new BatchOperationDTO(Type.ASSIGN_USER, null, null, null, null, "$apollo", "$alice"),
+                new BatchOperationDTO(Type.ASSIGN_USER, null, null, null, null, "$apollo", "$bob"));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+        // Act
+        List<BatchOperationResultDTO> results = batchService.execute(operations);
+
+        // Assert
+        assertEquals(5, results.size());
+        assertEquals(Status.CREATED, results.get(0).getStatus());
+        assertNotNull(results.get(0).getId());
+        assertEquals(Status.ASSIGNED, results.get(4).getStatus());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO users"),
+                argThat((List<Object[]> rows) -> rows.size() == 2));
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO projects"),
+                argThat((List<Object[]> rows) -> rows.size() == 1));
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO project_user"),
+                argThat((List<Object[]> rows) -> rows.size() == 2));
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE projects"),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(2)));
+        verify(eventPublisher, times(2)).publishEvent(any(MembershipChangedEvent.class));
+    }
+
+    @Test
+    public void execute_AssignThenRemove_WritesNoMembershipChanges() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(Type.ASSIGN_USER, null, null, null, null, projectId.toString(), userId.toString()),
+                new BatchOperationDTO(Type.REMOVE_USER, null, null, null, null, projectId.toString(), userId.toString()),
+                new BatchOperationDTO(Type.REMOVE_USER, null, null, null, null, projectId.toString(), userId.toString()));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(userId));
+        when(projectRepository.findExistingIds(anyCollection())).thenReturn(List.of(projectId));
+        when(projectRepository.findMemberships(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        // Act
+        List<BatchOperationResultDTO> results = batchService.execute(operations);
+
+        // Assert
+        assertEquals(Status.REMOVED, results.get(1).getStatus());
+        assertEquals(Status.NOT_ASSIGNED, results.get(2).getStatus());
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    @Test
+    public void execute_AlreadyAssigned_ThrowsIllegalArgumentExceptionWithoutWriting() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(Type.CREATE_PROJECT, null, "Apollo", null, null, null, null),
+                new BatchOperationDTO(Type.ASSIGN_USER, null, null, null, null, projectId.toString(), userId.toString()));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(userId));
+        when(projectRepository.findExistingIds(anyCollection())).thenReturn(List.of(projectId));
+        when(projectRepository.findMemberships(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{projectId, userId}));
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> batchService.execute(operations));
+        assertTrue(e.getMessage().startsWith("Operation 1:"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void execute_DuplicateEmailInBatch_ThrowsIllegalArgumentException() {
+        // Arrange
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(Type.CREATE_USER, null, "Alice", "alice@example.com", null, null, null),
+                new BatchOperationDTO(Type.CREATE_USER, null, "Alice", "alice@example.com", null, null, null));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(operations));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void execute_DuplicateEmailDifferingInCase_ReportsOperationIndex() {
+        // Arrange
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(Type.CREATE_USER, null, "Alice", "alice@example.com", null, null, null),
+                new BatchOperationDTO(Type.CREATE_USER, null, "Alice", "Alice@Example.com", null, null, null));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> batchService.execute(operations));
+        assertTrue(e.getMessage().startsWith("Operation 1:"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void execute_ExistingEmailDifferingInCase_ReportsOperationIndex() {
+        // Arrange
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(Type.CREATE_USER, null, "Alice", "alice@example.com", null, null, null));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of("ALICE@example.com"));
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> batchService.execute(operations));
+        assertTrue(e.getMessage().startsWith("Operation 0:"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void execute_MembershipRemovedConcurrently_SkipsItsMemberCountDelta() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(Type.REMOVE_USER, null, null, null, null, projectId.toString(), userId.toString()),
+                new BatchOperationDTO(Type.REMOVE_USER, null, null, null, null, projectId.toString(), otherUserId.toString()));
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(userId, otherUserId));
+        when(projectRepository.findExistingIds(anyCollection())).thenReturn(List.of(projectId));
+        when(projectRepository.findMemberships(anyCollection(), anyCollection())).thenReturn(List.of(
+                new Object[]{projectId, userId}, new Object[]{projectId, otherUserId}));
+        when(jdbcTemplate.batchUpdate(startsWith("DELETE FROM project_user"), anyList())).thenReturn(new int[]{1, 0});
+
+        // Act
+        batchService.execute(operations);
+
+        // Assert
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("UPDATE projects"),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(-1)));
+        verify(eventPublisher, times(1)).publishEvent(any(MembershipChangedEvent.class));
+    }
+
+    @Test
+    public void execute_UnknownReference_ThrowsIllegalArgumentException() {
+        // Arrange
+        List<BatchOperationDTO> operations = List.of(
+                new BatchOperationDTO(Type.ASSIGN_USER, null, null, null, null, "$missing", "$alsoMissing"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(operations));
+        verifyNoInteractions(jdbcTemplate, userRepository, projectRepository);
+    }
+}
@@ -0,0 +1,145 @@
+package com.xogito.project.user.management.service;
+
+import com.xogito.project.user.management.dto.MembershipAnalyticsDTO;
+import com.xogito.project.user.management.dto.RankedEntryDTO;
+import com.xogito.project.user.management.event.MembershipChangedEvent;
+import com.xogito.project.user.management.event.ProjectMembersChangedEvent;
+import com.xogito.project.user.management.event.ProjectsDeletedEvent;
+import com.xogito.project.user.management.event.UsersDeletedEvent;
+import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.repository.UserRepository;
+import com.xogito.project.user.management.service.impl.MembershipAnalyticsServiceImpl;
+import com.xogito.project.user.management.sharding.Shards;
+import com.xogito.project.user.management.sharding.TestShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class MembershipAnalyticsServiceTests {
+    @InjectMocks
+    private MembershipAnalyticsServiceImpl membershipAnalyticsService;
+    @Mock
+    private ProjectRepository projectRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Spy
+    private Shards shards = TestShards.single();
+
+    private final UUID bigProject = UUID.randomUUID();
+    private final UUID smallProject = UUID.randomUUID();
+    private final UUID emptyProject = UUID.randomUUID();
+    private final UUID busyUser = UUID.randomUUID();
+    private final UUID idleUser = UUID.randomUUID();
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        when(projectRepository.streamMemberCounts()).thenReturn(Stream.of(
+                new Object[]{bigProject, 7},
+                new Object[]{smallProject, 1},
+                new Object[]{emptyProject, 0}));
+        when(userRepository.streamAssignmentCounts()).thenReturn(Stream.of(
+                new Object[]{busyUser, 2L},
+                new Object[]{idleUser, 0L}));
+    }
+
+    @Test
+    public void recompute_BuildsRankingsHistogramAndOrphans() {
+        // Act
+        membershipAnalyticsService.recompute();
+        MembershipAnalyticsDTO analytics = membershipAnalyticsService.getAnalytics(10);
+
+        // Assert
+        assertEquals(2, analytics.getLargestProjects().size());
+        assertEquals(bigProject, analytics.getLargestProjects().get(0).getId());
+        assertEquals(7, analytics.getLargestProjects().get(0).getCount());
+        assertEquals(busyUser, analytics.getBusiestUsers().get(0).getId());
+        assertEquals(1L, analytics.getProjectSizeHistogram().get("0"));
+        assertEquals(1L, analytics.getProjectSizeHistogram().get("1"));
+        assertEquals(1L, analytics.getProjectSizeHistogram().get("6-10"));
+        assertEquals(0L, analytics.getProjectSizeHistogram().get("1001+"));
+        assertEquals(1, analytics.getOrphanProjects());
+        assertEquals(1, analytics.getOrphanUsers());
+        assertNotNull(analytics.getComputedAt());
+    }
+
+    @Test
+    public void onMembershipChanged_AdjustsAggregatesWithoutRecompute() {
+        // Arrange
+        membershipAnalyticsService.recompute();
+
+        // Act
+        membershipAnalyticsService.onMembershipChanged(new MembershipChangedEvent(emptyProject, idleUser, true));
+        membershipAnalyticsService.onMembershipChanged(new MembershipChangedEvent(smallProject, busyUser, false));
+        MembershipAnalyticsDTO analytics = membershipAnalyticsService.getAnalytics(1);
+
+        // Assert
+        assertEquals(1, analytics.getLargestProjects().size());
+        assertEquals(bigProject, analytics.getLargestProjects().get(0).getId());
+        assertEquals(1, analytics.getOrphanProjects());
+        assertEquals(0, analytics.getOrphanUsers());
+        assertEquals(1L, analytics.getProjectSizeHistogram().get("1"));
+    }
+
+    @Test
+    public void onProjectMembersChanged_AppliesTransferWithoutRecompute() {
+        // Arrange
+        membershipAnalyticsService.recompute();
+
+        // Act
+        membershipAnalyticsService.onProjectMembersChanged(
+                new ProjectMembersChangedEvent(emptyProject, List.of(busyUser, idleUser), List.of()));
+        membershipAnalyticsService.onProjectMembersChanged(
+                new ProjectMembersChangedEvent(smallProject, List.of(), List.of(busyUser)));
+        MembershipAnalyticsDTO analytics = membershipAnalyticsService.getAnalytics(10);
+
+        // Assert
+        assertEquals(List.of(bigProject, emptyProject),
+                analytics.getLargestProjects().stream().map(RankedEntryDTO::getId).toList());
+        assertEquals(2, analytics.getBusiestUsers().get(0).getCount());
+        assertEquals(0, analytics.getOrphanUsers());
+        verify(projectRepository, times(1)).streamMemberCounts();
+    }
+
+    @Test
+    public void onProjectsDeleted_DropsProjectsAndReleasesMembersWithoutRecompute() {
+        // Arrange
+        membershipAnalyticsService.recompute();
+
+        // Act
+        membershipAnalyticsService.onProjectsDeleted(new ProjectsDeletedEvent(List.of(smallProject), List.of(busyUser)));
+        MembershipAnalyticsDTO analytics = membershipAnalyticsService.getAnalytics(10);
+
+        // Assert
+        assertEquals(List.of(bigProject), analytics.getLargestProjects().stream().map(RankedEntryDTO::getId).toList());
+        assertEquals(0L, analytics.getProjectSizeHistogram().get("1"));
+        assertEquals(1, analytics.getBusiestUsers().get(0).getCount());
+        verify(projectRepository, times(1)).streamMemberCounts();
+    }
+
+    @Test
+    public void onUsersDeleted_DropsUsersAndReleasesProjectsWithoutRecompute() {
+        // Arrange
+        membershipAnalyticsService.recompute();
+
+        // Act
+        membershipAnalyticsService.onUsersDeleted(new UsersDeletedEvent(List.of(busyUser), List.of(bigProject, smallProject)));
+        MembershipAnalyticsDTO analytics = membershipAnalyticsService.getAnalytics(10);
+
+        // Assert
+        assertTrue(analytics.getBusiestUsers().isEmpty());
+        assertEquals(6, analytics.getLargestProjects().get(0).getCount());
+        assertEquals(2, analytics.getOrphanProjects());
+        verify(userRepository, times(1)).streamAssignmentCounts();
+    }
+}
@@ -1,24 +1,40 @@
 package com.xogito.project.user.management.service;
 
+import com.xogito.project.user.management.dto.BulkDeleteRequestDTO;
+import com.xogito.project.user.management.dto.BulkDeleteResultDTO;
+import com.xogito.project.user.management.dto.MemberTransferRequestDTO;
+import com.xogito.project.user.management.dto.MemberTransferResultDTO;
 import com.xogito.project.user.management.dto.ProjectDTO;
+import com.xogito.project.user.management.dto.ProjectDetailsDTO;
+import com.xogito.project.user.management.dto.ProjectPatchDTO;
+import com.xogito.project.user.management.dto.UserDTO;
+import com.xogito.project.user.management.event.MembershipBulkChangedEvent;
+import com.xogito.project.user.management.event.MembershipChangedEvent;
+import com.xogito.project.user.management.event.ProjectMembersChangedEvent;
+import com.xogito.project.user.management.event.ProjectsDeletedEvent;
+import com.xogito.project.user.management.exception.NotFoundException;
 import com.xogito.project.user.management.mapper.ProjectUserMapper;
 import com.xogito.project.user.management.model.Project;
 import com.xogito.project.user.management.model.User;
 import com.xogito.project.user.management.repository.ProjectRepository;
 import com.xogito.project.user.management.repository.UserRepository;
 import com.xogito.project.user.management.service.impl.ProjectServiceImpl;
+import com.xogito.project.user.management.sharding.Shards;
+import com.xogito.project.user.management.sharding.TestShards;
+import com.xogito.project.user.management.support.LookupCoalescer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +55,12 @@ public class ProjectServiceTests {
     private UserRepository userRepository;
     @Mock
     private ProjectUserMapper projectMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private LookupCoalescer lookupCoalescer = new LookupCoalescer();
+    @Spy
+    private Shards shards = TestShards.single();
 
     @BeforeEach
     public void init() {
@@ -62,16 +84,98 @@ public class ProjectServiceTests {
     }
 
     @Test
-    public void findProjectById_withNonExistingProjectId_ReturnsThrowIllegalArgumentException() {
+    public void findProjectById_withNonExistingProjectId_ThrowsNotFoundException() {
         // Arrange
         UUID projectId = UUID.randomUUID();
         when(projectRepository.findById(projectId)).thenReturn(Optional.empty());
 
         // Act and Assert
-        assertThrows(IllegalArgumentException.class, () -> projectService.findProjectById(projectId));
+        assertThrows(NotFoundException.class, () -> projectService.findProjectById(projectId));
         verify(projectRepository, times(1)).findById(projectId);
     }
 
+    @Test
+    public void readBackProject_ProjectExists_ReadsWithoutCoalescing() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        Project project = new Project();
+        project.setId(projectId);
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+
+        // Act
+        Project result = projectService.readBackProject(projectId);
+
+        // Assert
+        assertSame(project, result);
+        verify(lookupCoalescer, never()).execute(any(), any(), any());
+    }
+
+    @Test
+    public void getProjectVersion_ProjectExists_ReadsOnlyVersion() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        when(projectRepository.findVersionById(projectId)).thenReturn(Optional.of(7L));
+
+        // Act
+        long version = projectService.getProjectVersion(projectId);
+
+        // Assert
+        assertEquals(7L, version);
+        verify(projectRepository, never()).findById(any());
+    }
+
+    @Test
+    public void getProjectVersion_ProjectMissing_ThrowsNotFoundException() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        when(projectRepository.findVersionById(projectId)).thenReturn(Optional.empty());
+
+        // Act and Assert
+        assertThrows(NotFoundException.class, () -> projectService.getProjectVersion(projectId));
+    }
+
+    @Test
+    public void getProjectDetails_WithoutExpand_DoesNotLoadUsers() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        Project project = new Project();
+        project.setId(projectId);
+        project.setName("Project");
+        project.setMemberCount(2);
+        project.setVersion(5);
+
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+
+        // Act
+        ProjectDetailsDTO result = projectService.getProjectDetails(projectId, false, 100);
+
+        // Assert
+        assertEquals(projectId, result.getId());
+        assertEquals(2, result.getMemberCount());
+        assertEquals(5, result.getVersion());
+        assertNull(result.getUsers());
+        verify(projectRepository, never()).findAssignedUsers(any(), any());
+    }
+
+    @Test
+    public void getProjectDetails_WithExpand_LoadsUsersUpToCappedLimit() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        Project project = new Project();
+        project.setId(projectId);
+        List<UserDTO> users = List.of(new UserDTO(UUID.randomUUID(), "User", "user@example.com"));
+
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(projectRepository.findAssignedUsers(projectId, PageRequest.of(0, 1000))).thenReturn(users);
+
+        // Act
+        ProjectDetailsDTO result = projectService.getProjectDetails(projectId, true, 50_000);
+
+        // Assert
+        assertEquals(users, result.getUsers());
+        verify(projectRepository, times(1)).findAssignedUsers(projectId, PageRequest.of(0, 1000));
+    }
+
     @Test
     public void createProject_WithValidProject_ReturnsTrue() {
         // Arrange
@@ -121,6 +225,39 @@ public class ProjectServiceTests {
         verify(projectRepository, times(1)).save(existingProject);
     }
 
+    @Test
+    public void patchProject_ProjectExists_UpdatesWithoutReading() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        when(projectRepository.patchProject(projectId, null, "New Description")).thenReturn(1);
+
+        // Act
+        projectService.patchProject(projectId, new ProjectPatchDTO(null, "New Description"));
+
+        // Assert
+        verify(projectRepository, times(1)).patchProject(projectId, null, "New Description");
+        verify(projectRepository, never()).findById(any());
+        verify(projectRepository, never()).save(any());
+    }
+
+    @Test
+    public void patchProject_ProjectMissing_ThrowsNotFoundException() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        when(projectRepository.patchProject(projectId, "Name", null)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> projectService.patchProject(projectId, new ProjectPatchDTO("Name", null)));
+    }
+
+    @Test
+    public void patchProject_NoFields_ThrowsIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> projectService.patchProject(UUID.randomUUID(), new ProjectPatchDTO()));
+        verifyNoInteractions(projectRepository);
+    }
+
     @Test
     public void deleteProject_ExistingProject_SuccessfullyDeleted() {
         // Arrange
@@ -131,32 +268,65 @@ public class ProjectServiceTests {
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
 
         // Act
-        ResponseEntity<Object> response = projectService.deleteProject(projectId);
+        projectService.deleteProject(projectId);
 
         // Assert
-        assertNotNull(response);
-        assertEquals(HttpStatus.CREATED, response.getStatusCode());
-        assertEquals("Project deleted successfully!", response.getBody());
         verify(projectRepository, times(1)).findById(projectId);
         verify(projectRepository, times(1)).deleteById(projectId);
     }
 
     @Test
-    public void deleteProject_NonExistingProject_ReturnsBadRequest() {
+    public void deleteProject_NonExistingProject_ThrowsNotFoundException() {
         // Arrange
         UUID projectId = UUID.randomUUID();
 
         when(projectRepository.findById(projectId)).thenReturn(Optional.empty());
 
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> projectService.deleteProject(projectId));
+        verify(projectRepository, times(1)).findById(projectId);
+        verify(projectRepository, never()).deleteById(projectId);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void deleteProjects_ByIds_DeletesMembershipsAndProjects() {
+        // Arrange
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(projectRepository.deleteMembershipsByProjectIds(ids)).thenReturn(5);
+        when(projectRepository.deleteByIds(ids)).thenReturn(2);
+
         // Act
-        ResponseEntity<Object> response = projectService.deleteProject(projectId);
+        BulkDeleteResultDTO result = projectService.deleteProjects(new BulkDeleteRequestDTO(ids, null, null));
 
         // Assert
-        assertNotNull(response);
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("Project does not exist!", response.getBody());
-        verify(projectRepository, times(1)).findById(projectId);
-        verify(projectRepository, never()).deleteById(projectId);
+        assertEquals(5, result.getMembershipsDeleted());
+        assertEquals(2, result.getDeleted());
+        verify(projectRepository, never()).findById(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ProjectsDeletedEvent.class));
+    }
+
+    @Test
+    public void deleteProjects_ByNameLike_DeletesByEscapedPrefix() {
+        // Arrange
+        when(projectRepository.deleteMembershipsByProjectNameLike("\\%%")).thenReturn(0);
+        when(projectRepository.deleteByNameLike("\\%%")).thenReturn(1);
+
+        // Act
+        BulkDeleteResultDTO result = projectService.deleteProjects(new BulkDeleteRequestDTO(null, "%", null));
+
+        // Assert
+        assertEquals(1, result.getDeleted());
+        verify(projectRepository, never()).deleteByNameLike("%");
+        verify(eventPublisher, times(1)).publishEvent(any(MembershipBulkChangedEvent.class));
+    }
+
+    @Test
+    public void deleteProjects_WithoutIdsOrFilter_ThrowsIllegalArgumentException() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> projectService.deleteProjects(new BulkDeleteRequestDTO(null, null, null)));
+        verify(projectRepository, never()).deleteByIds(any());
     }
 
     @Test
@@ -204,6 +374,7 @@ public class ProjectServiceTests {
         project1.setId(projectId1);
         project1.setName("Project 1");
         project1.setDescription("Description 1");
+        project1.setMemberCount(3);
 
         Project project2 = new Project();
         UUID projectId2 = UUID.randomUUID();
@@ -225,6 +396,7 @@ public class ProjectServiceTests {
         assertEquals(projectId1, result.get(0).getId());
         assertEquals("Project 1", result.get(0).getName());
         assertEquals("Description 1", result.get(0).getDescription());
+        assertEquals(3, result.get(0).getMemberCount());
         assertEquals(projectId2, result.get(1).getId());
         assertEquals("Project 2", result.get(1).getName());
         assertEquals("Description 2", result.get(1).getDescription());
@@ -255,8 +427,155 @@ public class ProjectServiceTests {
         verify(userRepository, times(1)).findById(userId);
         verify(projectRepository, times(1)).save(project);
         verify(userRepository, times(1)).save(user);
+        verify(projectRepository, times(1)).adjustMemberCount(projectId, -1);
         assertTrue(project.getAssignedUsers().isEmpty());
         assertTrue(user.getAssignedProjects().isEmpty());
     }
-}
 
+    @Test
+    public void removeUserFromProject_UserNotAssigned_MemberCountUnchanged() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Project project = new Project();
+        User user = new User();
+
+        project.setAssignedUsers(new ArrayList<>());
+        user.setAssignedProjects(new ArrayList<>());
+
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // Act
+        projectService.removeUserFromProject(projectId, userId);
+
+        // Assert
+        verify(projectRepository, never()).adjustMemberCount(any(), anyInt());
+    }
+
+    @Test
+    public void assignUserToProject_UserNotAssigned_MemberCountIncremented() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Project project = new Project();
+        User user = new User();
+
+        project.setAssignedUsers(new ArrayList<>());
+        user.setAssignedProjects(new ArrayList<>());
+
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // Act
+        projectService.assignUserToProject(projectId, userId);
+
+        // Assert
+        assertTrue(project.getAssignedUsers().contains(user));
+        verify(projectRepository, times(1)).save(project);
+        verify(projectRepository, times(1)).adjustMemberCount(projectId, 1);
+        verify(eventPublisher, times(1)).publishEvent(any(MembershipChangedEvent.class));
+    }
+
+    @Test
+    public void assignUserToProject_UserAlreadyAssigned_ThrowsIllegalArgumentException() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        Project project = new Project();
+        User user = new User();
+
+        project.setAssignedUsers(new ArrayList<>(List.of(user)));
+        user.setAssignedProjects(new ArrayList<>(List.of(project)));
+
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> projectService.assignUserToProject(projectId, userId));
+        verify(projectRepository, never()).save(any());
+        verify(projectRepository, never()).adjustMemberCount(any(), anyInt());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void moveMembers_SelectedUsers_CopiesThenDeletesAndAdjustsBothCounts() {
+        // Arrange
+        UUID sourceId = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        List<UUID> userIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(projectRepository.existsById(sourceId)).thenReturn(true);
+        when(projectRepository.existsById(targetId)).thenReturn(true);
+        when(projectRepository.findMemberIdsOfUsers(sourceId, userIds)).thenReturn(userIds);
+        when(projectRepository.findMemberIdsOfUsers(targetId, userIds)).thenReturn(List.of(userIds.get(0)));
+        when(projectRepository.copyMembershipsOfUsers(sourceId, targetId, userIds)).thenReturn(2);
+        when(projectRepository.deleteMembershipsOfUsers(sourceId, userIds)).thenReturn(3);
+
+        // Act
+        MemberTransferResultDTO result = projectService.moveMembers(sourceId, targetId,
+                new MemberTransferRequestDTO(userIds, null));
+
+        // Assert
+        assertEquals(2, result.getAdded());
+        assertEquals(3, result.getRemoved());
+        verify(projectRepository, times(1)).adjustMemberCount(targetId, 2);
+        verify(projectRepository, times(1)).adjustMemberCount(sourceId, -3);
+        ArgumentCaptor<ProjectMembersChangedEvent> events = ArgumentCaptor.forClass(ProjectMembersChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(targetId, events.getAllValues().get(0).getProjectId());
+        assertEquals(userIds.subList(1, 3), events.getAllValues().get(0).getAddedUserIds());
+        assertEquals(sourceId, events.getAllValues().get(1).getProjectId());
+        assertEquals(userIds, events.getAllValues().get(1).getRemovedUserIds());
+        verify(projectRepository, never()).findById(any());
+    }
+
+    @Test
+    public void moveMembers_ConcurrentChangeBetweenStatements_PublishesBulkChange() {
+        // Arrange
+        UUID sourceId = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        List<UUID> userIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(projectRepository.existsById(sourceId)).thenReturn(true);
+        when(projectRepository.existsById(targetId)).thenReturn(true);
+        when(projectRepository.findMemberIdsOfUsers(sourceId, userIds)).thenReturn(userIds);
+        when(projectRepository.copyMembershipsOfUsers(sourceId, targetId, userIds)).thenReturn(2);
+        when(projectRepository.deleteMembershipsOfUsers(sourceId, userIds)).thenReturn(1);
+
+        // Act
+        projectService.moveMembers(sourceId, targetId, new MemberTransferRequestDTO(userIds, null));
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(any(MembershipBulkChangedEvent.class));
+        verify(eventPublisher, never()).publishEvent(any(ProjectMembersChangedEvent.class));
+    }
+
+    @Test
+    public void copyMembers_AllAlreadyMembers_LeavesCountsAlone() {
+        // Arrange
+        UUID sourceId = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        when(projectRepository.existsById(sourceId)).thenReturn(true);
+        when(projectRepository.existsById(targetId)).thenReturn(true);
+        when(projectRepository.copyMemberships(sourceId, targetId)).thenReturn(0);
+
+        // Act
+        MemberTransferResultDTO result = projectService.copyMembers(sourceId, targetId, null);
+
+        // Assert
+        assertEquals(0, result.getAdded());
+        verify(projectRepository, never()).adjustMemberCount(any(), anyInt());
+        verify(projectRepository, never()).deleteMemberships(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void copyMembers_SameSourceAndTarget_ThrowsIllegalArgumentException() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> projectService.copyMembers(projectId, projectId, null));
+        verify(projectRepository, never()).copyMemberships(any(), any());
+    }
+}
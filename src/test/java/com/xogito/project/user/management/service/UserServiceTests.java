@@ -1,27 +1,43 @@
 package com.xogito.project.user.management.service;
 
+import com.xogito.project.user.management.dto.BulkDeleteRequestDTO;
+import com.xogito.project.user.management.dto.BulkDeleteResultDTO;
+import com.xogito.project.user.management.dto.UserPatchDTO;
+import com.xogito.project.user.management.event.MembershipBulkChangedEvent;
+import com.xogito.project.user.management.event.UsersDeletedEvent;
+import com.xogito.project.user.management.exception.DuplicateEmailException;
+import com.xogito.project.user.management.exception.NotFoundException;
 import com.xogito.project.user.management.model.User;
 import com.xogito.project.user.management.repository.UserRepository;
 import com.xogito.project.user.management.service.impl.UserServiceImpl;
+import com.xogito.project.user.management.sharding.Shards;
+import com.xogito.project.user.management.sharding.TestShards;
+import com.xogito.project.user.management.sharding.UserReplicas;
+import com.xogito.project.user.management.support.Fieldset;
+import com.xogito.project.user.management.support.LookupCoalescer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.*;
 
 import static org.mockito.Mockito.when;
@@ -34,6 +50,15 @@ public class UserServiceTests {
 
     @Mock
     private UserRepository userRepository;
+    @Spy
+    private LookupCoalescer lookupCoalescer = new LookupCoalescer();
+    @Spy
+    private Shards shards = TestShards.single();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private UserReplicas userReplicas;
 
     @BeforeEach
     public void init() {
@@ -61,85 +86,129 @@ public class UserServiceTests {
     }
 
     @Test
-    public void findUserById_UserDoesNotExist_ReturnsThrowIllegalArgumentException() {
+    public void findUserById_UserDoesNotExist_ThrowsNotFoundException() {
         // Arrange
         UUID userId = UUID.randomUUID();
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         // Act and Assert
-        assertThrows(IllegalArgumentException.class, () -> userService.findUserById(userId));
+        assertThrows(NotFoundException.class, () -> userService.findUserById(userId));
         verify(userRepository, times(1)).findById(userId);
 
     }
 
+    @Test
+    public void getUserVersion_UserExists_ReadsOnlyVersion() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(3L));
+
+        // Act
+        long version = userService.getUserVersion(userId);
+
+        // Assert
+        assertEquals(3L, version);
+        verify(userRepository, never()).findById(any());
+    }
+
     @Test
     public void createUser_EmailDoesNotExist_UserCreatedSuccessfully() {
         // Arrange
         User user = new User();
-        user.setId(UUID.randomUUID());
         user.setName("User1");
-        user.setEmail("user1@example.com");
+        user.setEmail("User1@Example.com");
 
-        when(userRepository.existsByEmail(user.getEmail())).thenReturn(false);
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.insertUser(any(UUID.class), eq("User1"), eq("User1@Example.com"),
+                eq("user1@example.com"), eq("example.com"))).thenReturn(1);
 
         // Act
         User result = userService.createUser(user);
 
         // Assert
-        verify(userRepository, times(1)).existsByEmail(user.getEmail());
-        verify(userRepository, times(1)).save(user);
+        verify(userRepository, times(1)).insertUser(eq(result.getId()), eq("User1"), eq("User1@Example.com"),
+                eq("user1@example.com"), eq("example.com"));
+        verify(userRepository, never()).save(any());
+        verify(userReplicas, times(1)).replicate(List.of(result.getId()));
+        assertNotNull(result.getId());
         assertEquals(user, result);
     }
 
     @Test
-    public void createUser_NewUser_SuccessfullyCreated() {
+    public void createUser_EmailAlreadyExists_ThrowsDuplicateEmailException() {
         // Arrange
         User user = new User();
+        user.setName("User1");
         user.setEmail("test@example.com");
 
-        when(userRepository.existsByEmail(user.getEmail())).thenReturn(false);
-        when(userRepository.save(user)).thenReturn(user);
-
-        // Act
-        User createdUser = userService.createUser(user);
+        when(userRepository.insertUser(any(), any(), any(), any(), any())).thenThrow(new DataIntegrityViolationException(
+                "duplicate", new SQLIntegrityConstraintViolationException("Duplicate entry", "23000", 1062)));
 
-        // Assert
-        assertNotNull(createdUser);
-        assertEquals(user.getEmail(), createdUser.getEmail());
-        verify(userRepository, times(1)).existsByEmail(user.getEmail());
-        verify(userRepository, times(1)).save(user);
+        // Act & Assert
+        assertThrows(DuplicateEmailException.class, () -> userService.createUser(user));
+        verify(userRepository, times(1)).insertUser(any(), any(), any(), any(), any());
+        verifyNoInteractions(userReplicas);
     }
 
     @Test
-    public void createUser_EmailAlreadyExists_ThrowsBadRequestException() {
+    public void createUser_DatabaseError_ThrowsBadGatewayException() {
         // Arrange
         User user = new User();
         user.setEmail("test@example.com");
 
-        when(userRepository.existsByEmail(user.getEmail())).thenReturn(true);
+        when(userRepository.insertUser(any(), any(), any(), any(), any())).thenThrow(new DataIntegrityViolationException(
+                "not null", new SQLIntegrityConstraintViolationException("Column cannot be null", "23000", 1048)));
 
         // Act & Assert
         assertThrows(ResponseStatusException.class, () -> userService.createUser(user));
-        verify(userRepository, times(1)).existsByEmail(user.getEmail());
-        verify(userRepository, never()).save(user);
+        verify(userRepository, times(1)).insertUser(any(), any(), any(), any(), any());
     }
 
+
     @Test
-    public void createUser_DatabaseError_ThrowsBadGatewayException() {
+    public void patchUser_NewEmail_UpdatesNormalizedColumnsWithoutReading() {
         // Arrange
-        User user = new User();
-        user.setEmail("test@example.com");
+        UUID userId = UUID.randomUUID();
+        when(userRepository.patchUser(userId, null, "New@Example.com", "new@example.com", "example.com")).thenReturn(1);
+
+        // Act
+        userService.patchUser(userId, new UserPatchDTO(null, "New@Example.com"));
 
-        when(userRepository.existsByEmail(user.getEmail())).thenReturn(false);
-        when(userRepository.save(user)).thenThrow(DataIntegrityViolationException.class);
+        // Assert
+        verify(userRepository, times(1)).patchUser(userId, null, "New@Example.com", "new@example.com", "example.com");
+        verify(userReplicas, times(1)).replicate(List.of(userId));
+        verify(userRepository, never()).findById(any());
+    }
 
+    @Test
+    public void patchUser_BlankEmail_ThrowsIllegalArgumentException() {
         // Act & Assert
-        assertThrows(ResponseStatusException.class, () -> userService.createUser(user));
-        verify(userRepository, times(1)).existsByEmail(user.getEmail());
-        verify(userRepository, times(1)).save(user);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> userService.patchUser(UUID.randomUUID(), new UserPatchDTO(null, "")));
+        assertEquals("Email is required", e.getMessage());
+        verifyNoInteractions(userRepository);
     }
 
+    @Test
+    public void patchUser_UserMissing_ThrowsNotFoundException() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        when(userRepository.patchUser(userId, "Name", null, null, null)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> userService.patchUser(userId, new UserPatchDTO("Name", null)));
+    }
+
+    @Test
+    public void patchUser_EmailTaken_ThrowsDuplicateEmailException() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        when(userRepository.patchUser(any(), any(), any(), any(), any())).thenThrow(new DataIntegrityViolationException(
+                "duplicate", new SQLIntegrityConstraintViolationException("Duplicate entry", "23000", 1062)));
+
+        // Act & Assert
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.patchUser(userId, new UserPatchDTO(null, "taken@example.com")));
+    }
 
     @Test
     public void updateUser_WithValidIdAndUser_ReturnsUpdatedUser() {
@@ -176,39 +245,62 @@ public class UserServiceTests {
     }
 
     @Test
-    public void deleteUser_UserExists_UserDeletedSuccessfully() {
+    public void deleteUser_UserExists_DeletesMembershipsThenUser() {
         // Arrange
         UUID userId = UUID.randomUUID();
-        User user = new User();
-        user.setId(userId);
+        List<UUID> ids = List.of(userId);
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.deleteByIds(ids)).thenReturn(1);
 
         // Act
-        ResponseEntity<Object> response = userService.deleteUser(userId);
+        userService.deleteUser(userId);
 
         // Assert
-        assertEquals(HttpStatus.CREATED, response.getStatusCode());
-        assertEquals("User deleted successfully!", response.getBody());
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, times(1)).deleteById(userId);
+        InOrder inOrder = inOrder(userRepository);
+        inOrder.verify(userRepository).releaseMemberCountsByUserIds(ids);
+        inOrder.verify(userRepository).deleteMembershipsByUserIds(ids);
+        inOrder.verify(userRepository).deleteByIds(ids);
+        verify(userReplicas, times(1)).replicate(ids);
+        verify(eventPublisher, times(1)).publishEvent(any(UsersDeletedEvent.class));
     }
 
     @Test
-    public void deleteUser_UserDoesNotExist_ReturnsBadRequest() {
+    public void deleteUser_UserDoesNotExist_ThrowsNotFoundException() {
         // Arrange
         UUID userId = UUID.randomUUID();
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.deleteByIds(List.of(userId))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> userService.deleteUser(userId));
+        verifyNoInteractions(userReplicas, eventPublisher);
+    }
+
+    @Test
+    public void deleteUsers_ByEmailLike_DeletesByEscapedPrefix() {
+        // Arrange
+        String emailLike = "ops\\_%";
+        when(userRepository.deleteMembershipsByUserEmailLike(emailLike)).thenReturn(4);
+        when(userRepository.deleteByEmailLike(emailLike)).thenReturn(3);
 
         // Act
-        ResponseEntity<Object> response = userService.deleteUser(userId);
+        BulkDeleteResultDTO result = userService.deleteUsers(new BulkDeleteRequestDTO(null, null, "ops_"));
 
         // Assert
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
-        assertEquals("User does not exist!", response.getBody());
-        verify(userRepository, times(1)).findById(userId);
-        verify(userRepository, never()).deleteById(userId);
+        assertEquals(4, result.getMembershipsDeleted());
+        assertEquals(3, result.getDeleted());
+        verify(userRepository, times(1)).releaseMemberCountsByUserEmailLike(emailLike);
+        verify(eventPublisher, times(1)).publishEvent(any(MembershipBulkChangedEvent.class));
+    }
+
+    @Test
+    public void deleteUsers_WithIdsAndFilter_ThrowsIllegalArgumentException() {
+        // Arrange
+        BulkDeleteRequestDTO request = new BulkDeleteRequestDTO(List.of(UUID.randomUUID()), null, "%@example.com");
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.deleteUsers(request));
+        verify(userRepository, never()).deleteByIds(any());
     }
 
     @Test
@@ -241,4 +333,60 @@ public class UserServiceTests {
                 .searchUsersByNameAndEmail(name, email, PageRequest.of(pageNumber, pageSize));
         assertEquals(users, searchedUsers);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void searchUsers_WithEmailDomain_ReturnsListOfUsers() {
+        // Arrange
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName("Vesa");
+        user.setEmail("vesa@gmail.com");
+        List<User> users = List.of(user);
+
+        when(userRepository.findAll(any(Specification.class), eq(PageRequest.of(0, 10))))
+                .thenReturn(new PageImpl<>(users));
+
+        // Act
+        List<User> searchedUsers = userService.searchUsers(null, null, "GMAIL.com", 0, 10);
+
+        // Assert
+        verify(userRepository, times(1)).findAll(any(Specification.class), eq(PageRequest.of(0, 10)));
+        assertEquals(users, searchedUsers);
+    }
+
+    @Test
+    public void searchUsers_WithoutFilters_ThrowsIllegalArgumentException() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.searchUsers(null, "", null, 0, 10));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void findUserFieldsById_ReturnsOnlyRequestedFields() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        Fieldset fields = Fieldset.parse("id,name", List.of("id", "name", "email"));
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", userId);
+        row.put("name", "Jane");
+        when(userRepository.findFields(any(), eq(fields), eq(Pageable.unpaged()))).thenReturn(List.of(row));
+
+        // Act
+        Map<String, Object> user = userService.findUserFieldsById(userId, fields);
+
+        // Assert
+        assertEquals(List.of("id", "name"), new ArrayList<>(user.keySet()));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    public void findUserFieldsById_UserMissing_ThrowsNotFoundException() {
+        // Arrange
+        Fieldset fields = Fieldset.parse("name", List.of("id", "name", "email"));
+        when(userRepository.findFields(any(), eq(fields), any())).thenReturn(List.of());
+
+        // Act and Assert
+        assertThrows(NotFoundException.class, () -> userService.findUserFieldsById(UUID.randomUUID(), fields));
+    }
 }
@@ -0,0 +1,160 @@
+package com.xogito.project.user.management.sharding;
+
+import com.xogito.project.user.management.dto.ProjectDTO;
+import com.xogito.project.user.management.dto.UserPatchDTO;
+import com.xogito.project.user.management.model.Project;
+import com.xogito.project.user.management.model.User;
+import com.xogito.project.user.management.service.ProjectService;
+import com.xogito.project.user.management.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the application sharded over two databases of one MySQL container, covering routing, the per-shard
+ * migrations, user replication and the rebalancer against real schemas. The queries are MySQL-specific, so an
+ * embedded database cannot stand in. Skipped where Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public class ShardingIntegrationTests {
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("shard_0")
+            .withUsername("root")
+            .withPassword("test")
+            .withInitScript("sharding/create-shards.sql");
+
+    @Autowired
+    private ProjectService projectService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserReplicas userReplicas;
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) {
+        registry.add("app.sharding.enabled", () -> "true");
+        for (int shard = 0; shard < 2; shard++) {
+            String url = MYSQL.getJdbcUrl().replace("/shard_0", "/shard_" + shard);
+            registry.add("app.sharding.shards[" + shard + "].url", () -> url);
+            registry.add("app.sharding.shards[" + shard + "].username", MYSQL::getUsername);
+            registry.add("app.sharding.shards[" + shard + "].password", MYSQL::getPassword);
+        }
+    }
+
+    @Test
+    public void migrations_RunOnEveryShard() {
+        for (int shard = 0; shard < 2; shard++) {
+            // Assert
+            assertEquals(0, count(shard, "SELECT COUNT(*) FROM flyway_schema_history WHERE success = 0"));
+            assertEquals(1, count(shard, "SELECT COUNT(*) FROM information_schema.columns "
+                    + "WHERE table_schema = DATABASE() AND table_name = 'projects' AND column_name = 'version'"));
+        }
+    }
+
+    @Test
+    public void createProject_StoresProjectOnItsShardOnly() {
+        // Act
+        Project project = projectService.createProject(new ProjectDTO(null, "Routed", null, 0));
+
+        // Assert
+        int owner = ShardRouter.shardOf(project.getId(), 2);
+        assertEquals(1, count(owner, "SELECT COUNT(*) FROM projects WHERE id = ?", bytes(project.getId())));
+        assertEquals(0, count(1 - owner, "SELECT COUNT(*) FROM projects WHERE id = ?", bytes(project.getId())));
+        assertEquals("Routed", projectService.findProjectById(project.getId()).getName());
+    }
+
+    @Test
+    public void userWrites_AreReplicatedToEveryShard() {
+        // Arrange
+        User user = new User();
+        user.setName("Replicated");
+        user.setEmail("replicated-" + UUID.randomUUID() + "@example.com");
+        UUID userId = userService.createUser(user).getId();
+        UUID projectId = projectService.createProject(new ProjectDTO(null, "Replicas", null, 0)).getId();
+
+        // Act
+        userService.patchUser(userId, new UserPatchDTO("Renamed", null));
+        projectService.assignUserToProject(projectId, userId);
+
+        // Assert
+        for (int shard = 0; shard < 2; shard++) {
+            assertEquals(1, count(shard, "SELECT COUNT(*) FROM users WHERE id = ? AND name = 'Renamed' AND version = 1",
+                    bytes(userId)));
+        }
+        int owner = ShardRouter.shardOf(projectId, 2);
+        assertEquals(1, count(owner, "SELECT COUNT(*) FROM project_user WHERE user_id = ?", bytes(userId)));
+    }
+
+    @Test
+    public void reconcile_RepairsDriftedReplica() {
+        // Arrange
+        User user = new User();
+        user.setName("Drifted");
+        user.setEmail("drifted-" + UUID.randomUUID() + "@example.com");
+        UUID userId = userService.createUser(user).getId();
+        UUID orphanId = UUID.randomUUID();
+        JdbcTemplate replica = new JdbcTemplate(shardDataSources.get(1));
+        replica.update("DELETE FROM users WHERE id = ?", (Object) bytes(userId));
+        replica.update("INSERT INTO users (id, name, email) VALUES (?, 'Orphan', ?)", bytes(orphanId),
+                "orphan-" + orphanId + "@example.com");
+
+        // Act
+        long repaired = userReplicas.reconcile();
+
+        // Assert
+        assertTrue(repaired >= 2);
+        assertEquals(1, count(1, "SELECT COUNT(*) FROM users WHERE id = ? AND name = 'Drifted'", bytes(userId)));
+        assertEquals(0, count(1, "SELECT COUNT(*) FROM users WHERE id = ?", bytes(orphanId)));
+    }
+
+    @Test
+    public void rebalance_MovesMisplacedProjectWithItsMembers() {
+        // Arrange
+        User user = new User();
+        user.setName("Member");
+        user.setEmail("member-" + UUID.randomUUID() + "@example.com");
+        UUID userId = userService.createUser(user).getId();
+        UUID projectId = UUID.randomUUID();
+        int owner = ShardRouter.shardOf(projectId, 2);
+        JdbcTemplate wrongShard = new JdbcTemplate(shardDataSources.get(1 - owner));
+        wrongShard.update("INSERT INTO projects (id, name, member_count) VALUES (?, 'Misplaced', 1)", (Object) bytes(projectId));
+        wrongShard.update("INSERT INTO project_user (project_id, user_id) VALUES (?, ?)", bytes(projectId), bytes(userId));
+
+        // Act
+        shardRebalancer.rebalance(shardDataSources);
+
+        // Assert
+        assertEquals(0, count(1 - owner, "SELECT COUNT(*) FROM projects WHERE id = ?", bytes(projectId)));
+        assertEquals(1, count(owner, "SELECT COUNT(*) FROM projects WHERE id = ? AND member_count = 1", bytes(projectId)));
+        assertEquals(1, count(owner, "SELECT COUNT(*) FROM project_user WHERE project_id = ?", bytes(projectId)));
+    }
+
+    private int count(int shard, String sql, Object... args) {
+        Integer count = new JdbcTemplate(shardDataSources.get(shard)).queryForObject(sql, Integer.class, args);
+        return count == null ? 0 : count;
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,90 @@
+package com.xogito.project.user.management.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardsTests {
+    private final Shards shards = TestShards.sharded(2);
+
+    @AfterEach
+    public void shutdown() {
+        shards.shutdown();
+    }
+
+    @Test
+    public void shardOf_IsStableAndSpreadsProjects() {
+        // Arrange
+        List<UUID> projectIds = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID()).toList();
+
+        // Act
+        long onFirstShard = projectIds.stream().filter(id -> shards.shardOf(id) == 0).count();
+
+        // Assert
+        projectIds.forEach(id -> assertEquals(ShardRouter.shardOf(id, 2), shards.shardOf(id)));
+        assertTrue(onFirstShard > 400 && onFirstShard < 600);
+    }
+
+    @Test
+    public void onProjectShard_RoutesToOwningShard() {
+        // Arrange
+        UUID projectId = UUID.randomUUID();
+
+        // Act
+        Integer routed = shards.onProjectShard(projectId, ShardContext::current);
+
+        // Assert
+        assertEquals(shards.shardOf(projectId), routed);
+        assertNull(ShardContext.current());
+    }
+
+    @Test
+    public void onShardsOf_GroupsIdsByShard() {
+        // Arrange
+        List<UUID> projectIds = IntStream.range(0, 20).mapToObj(i -> UUID.randomUUID()).toList();
+
+        // Act
+        List<List<UUID>> perShard = shards.onShardsOf(projectIds, ids -> {
+            ids.forEach(id -> assertEquals(shards.shardOf(id), ShardContext.current()));
+            return ids;
+        });
+
+        // Assert
+        assertEquals(projectIds.size(), perShard.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    public void gatherPage_MergesShardsInIdOrder() {
+        // Arrange
+        List<UUID> all = IntStream.range(0, 25).mapToObj(i -> UUID.randomUUID()).collect(Collectors.toList());
+        Comparator<UUID> unsigned = Comparator
+                .<UUID>comparingLong(UUID::getMostSignificantBits, Long::compareUnsigned)
+                .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+        // Act
+        List<UUID> page = shards.gatherPage(1, 10, id -> id, pageable -> firstOfShard(all, pageable, unsigned));
+
+        // Assert
+        List<UUID> expected = new ArrayList<>(all);
+        expected.sort(unsigned);
+        assertEquals(expected.subList(10, 20), page);
+    }
+
+    private List<UUID> firstOfShard(List<UUID> all, Pageable pageable, Comparator<UUID> order) {
+        int shard = ShardContext.current();
+        return all.stream()
+                .filter(id -> ShardRouter.shardOf(id, 2) == shard)
+                .sorted(order)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+}
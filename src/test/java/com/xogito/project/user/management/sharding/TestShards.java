@@ -0,0 +1,41 @@
+package com.xogito.project.user.management.sharding;
+
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@link Shards} for unit tests, on a mocked transaction manager.
+ */
+public final class TestShards {
+
+    private TestShards() {
+    }
+
+    /**
+     * Unsharded: every method runs the work on the calling thread, as with a single database.
+     */
+    public static Shards single() {
+        return new Shards(new ShardRouter(new ShardingProperties()), mock(PlatformTransactionManager.class),
+                new ShardingProperties());
+    }
+
+    public static Shards sharded(int count) {
+        return new Shards(new ShardRouter(properties(count)), mock(PlatformTransactionManager.class), properties(count));
+    }
+
+    public static ShardingProperties properties(int count) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        List<ShardingProperties.Shard> shards = new ArrayList<>();
+        for (int shard = 0; shard < count; shard++) {
+            shards.add(new ShardingProperties.Shard());
+        }
+        properties.setShards(shards);
+        properties.setThreads(count);
+        return properties;
+    }
+}
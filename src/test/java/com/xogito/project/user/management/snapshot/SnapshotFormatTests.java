@@ -0,0 +1,117 @@
+package com.xogito.project.user.management.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotFormatTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void roundTrip_SplitsSectionsIntoChunksAndReadsBackEveryRecord() throws IOException {
+        // Arrange
+        Path file = directory.resolve("dataset.snap");
+        UUID user = UUID.randomUUID();
+        UUID project = UUID.randomUUID();
+        int memberships = SnapshotFormat.CHUNK_RECORDS + 1;
+        long bytes;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            SnapshotWriter writer = new SnapshotWriter(out);
+            writer.writeUser(user, "Zo\u00eb", "Zoe@Example.com", 3);
+            writer.writeProject(project, "Apollo", null, 7);
+            for (int i = 0; i < memberships; i++) {
+                writer.writeMembership(project, user);
+            }
+            writer.close();
+            bytes = writer.getBytesWritten();
+        }
+
+        // Act and Assert
+        assertEquals(Files.size(file), bytes);
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            SnapshotReader.Chunk users = reader.nextChunk();
+            assertEquals(SnapshotFormat.USERS, users.section());
+            assertEquals(1, users.records());
+            assertEquals(user, users.readUuid());
+            assertEquals("Zo\u00eb", users.readString());
+            assertEquals("Zoe@Example.com", users.readString());
+            assertEquals(3, users.readLong());
+
+            SnapshotReader.Chunk projects = reader.nextChunk();
+            assertEquals(SnapshotFormat.PROJECTS, projects.section());
+            assertEquals(project, projects.readUuid());
+            assertEquals("Apollo", projects.readString());
+            assertNull(projects.readString());
+            assertEquals(7, projects.readLong());
+
+            SnapshotReader.Chunk first = reader.nextChunk();
+            SnapshotReader.Chunk second = reader.nextChunk();
+            assertEquals(SnapshotFormat.MEMBERSHIPS, first.section());
+            assertEquals(SnapshotFormat.CHUNK_RECORDS, first.records());
+            assertEquals(1, second.records());
+            assertEquals(project, second.readUuid());
+            assertEquals(user, second.readUuid());
+            assertNull(reader.nextChunk());
+        }
+    }
+
+    @Test
+    public void nextChunk_CorruptPayload_Throws() throws IOException {
+        // Arrange
+        Path file = directory.resolve("corrupt.snap");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            SnapshotWriter writer = new SnapshotWriter(out);
+            writer.writeUser(new UUID(0L, 1L), "Jane", "jane@example.com", 0);
+            writer.close();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), SnapshotFormat.HEADER_LENGTH + SnapshotFormat.CHUNK_HEADER_LENGTH);
+        }
+
+        // Act and Assert
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            assertThrows(SnapshotFormatException.class, reader::nextChunk);
+        }
+    }
+
+    @Test
+    public void nextChunk_TruncatedFile_ThrowsSnapshotFormatException() throws IOException {
+        // Arrange
+        Path file = directory.resolve("truncated.snap");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            SnapshotWriter writer = new SnapshotWriter(out);
+            writer.writeUser(new UUID(0L, 1L), "Jane", "jane@example.com", 0);
+            writer.close();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(SnapshotFormat.HEADER_LENGTH + SnapshotFormat.CHUNK_HEADER_LENGTH + 1);
+        }
+
+        // Act and Assert
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            assertThrows(SnapshotFormatException.class, reader::nextChunk);
+        }
+    }
+
+    @Test
+    public void writeUser_AfterProjects_ThrowsIllegalStateException() throws IOException {
+        // Arrange
+        SnapshotWriter writer = new SnapshotWriter(OutputStream.nullOutputStream());
+        writer.writeProject(UUID.randomUUID(), "Apollo", "", 0);
+
+        // Act and Assert
+        assertThrows(IllegalStateException.class,
+                () -> writer.writeUser(UUID.randomUUID(), "Jane", "jane@example.com", 0));
+    }
+}
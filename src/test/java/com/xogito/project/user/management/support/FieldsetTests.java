@@ -0,0 +1,33 @@
+package com.xogito.project.user.management.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldsetTests {
+    private static final List<String> ALLOWED = List.of("id", "name", "email");
+
+    @Test
+    public void parse_KeepsAllowedOrderAndDropsDuplicates() {
+        // Act
+        Fieldset fields = Fieldset.parse(" name, id ,name", ALLOWED);
+
+        // Assert
+        assertEquals(List.of("id", "name"), fields.getNames());
+        assertEquals(Fieldset.parse("id,name", ALLOWED), fields);
+    }
+
+    @Test
+    public void parse_UnknownField_ThrowsIllegalArgumentException() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> Fieldset.parse("id,password", ALLOWED));
+    }
+
+    @Test
+    public void parse_NoFields_ThrowsIllegalArgumentException() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> Fieldset.parse(" , ", ALLOWED));
+    }
+}
@@ -0,0 +1,84 @@
+package com.xogito.project.user.management.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LookupCoalescerTests {
+
+    private final LookupCoalescer lookupCoalescer = new LookupCoalescer();
+
+    @Test
+    public void execute_ConcurrentCallsForSameKey_ShareOneLoad() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> lookupCoalescer.execute("test", "key", () -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return "value";
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lookupCoalescer.coalescedCount("test") < 3 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(4, lookupCoalescer.callCount("test"));
+            assertEquals(3, lookupCoalescer.coalescedCount("test"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void execute_SequentialCalls_LoadEachTime() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        lookupCoalescer.execute("test", "key", loads::incrementAndGet);
+        lookupCoalescer.execute("test", "key", loads::incrementAndGet);
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(0, lookupCoalescer.coalescedCount("test"));
+    }
+
+    @Test
+    public void execute_LoaderFails_ExceptionPropagated() {
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class, () -> lookupCoalescer.execute("test", "key", () -> {
+            throw new IllegalArgumentException("not found");
+        }));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
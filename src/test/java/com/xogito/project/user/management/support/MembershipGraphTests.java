@@ -0,0 +1,103 @@
+package com.xogito.project.user.management.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MembershipGraphTests {
+    private final MembershipGraph graph = new MembershipGraph();
+
+    private final UUID alpha = UUID.randomUUID();
+    private final UUID beta = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final UUID carol = UUID.randomUUID();
+
+    @Test
+    public void isMember_ReflectsAddsAndRemoves() {
+        // Arrange
+        graph.add(alpha, alice);
+        graph.add(alpha, alice);
+        graph.add(alpha, bob);
+
+        // Act
+        graph.remove(alpha, bob);
+
+        // Assert
+        assertTrue(graph.isMember(alpha, alice));
+        assertFalse(graph.isMember(alpha, bob));
+        assertFalse(graph.isMember(beta, alice));
+        assertFalse(graph.isMember(UUID.randomUUID(), UUID.randomUUID()));
+    }
+
+    @Test
+    public void commonProjects_ReturnsIntersection() {
+        // Arrange
+        graph.add(alpha, alice);
+        graph.add(beta, alice);
+        graph.add(beta, bob);
+
+        // Act
+        List<UUID> common = graph.commonProjects(alice, bob);
+
+        // Assert
+        assertEquals(List.of(beta), common);
+        assertTrue(graph.commonProjects(alice, UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    public void collaborators_ExcludesUserAndHonoursLimit() {
+        // Arrange
+        graph.add(alpha, alice);
+        graph.add(alpha, bob);
+        graph.add(beta, alice);
+        graph.add(beta, carol);
+
+        // Act
+        Set<UUID> collaborators = new HashSet<>(graph.collaborators(alice, 10));
+
+        // Assert
+        assertEquals(Set.of(bob, carol), collaborators);
+        assertEquals(1, graph.collaborators(alice, 1).size());
+    }
+
+    @Test
+    public void removeProject_DropsAllItsMemberships() {
+        // Arrange
+        graph.add(alpha, alice);
+        graph.add(alpha, bob);
+        graph.add(beta, alice);
+
+        // Act
+        graph.removeProject(alpha);
+
+        // Assert
+        assertFalse(graph.isMember(alpha, alice));
+        assertTrue(graph.collaborators(bob, 10).isEmpty());
+        assertEquals(List.of(beta), graph.commonProjects(alice, alice));
+    }
+
+    @Test
+    public void add_ManyIds_GrowsIndexes() {
+        // Arrange
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID user = UUID.randomUUID();
+            users.add(user);
+            graph.add(alpha, user);
+        }
+
+        // Act
+        graph.optimize();
+
+        // Assert
+        users.forEach(user -> assertTrue(graph.isMember(alpha, user)));
+        assertEquals(9_999, graph.collaborators(users.get(0), Integer.MAX_VALUE).size());
+    }
+}
@@ -0,0 +1,94 @@
+package com.xogito.project.user.management.warmup;
+
+import com.xogito.project.user.management.dto.UserDTO;
+import com.xogito.project.user.management.model.Project;
+import com.xogito.project.user.management.repository.ProjectRepository;
+import com.xogito.project.user.management.service.MembershipAnalyticsService;
+import com.xogito.project.user.management.service.MembershipService;
+import com.xogito.project.user.management.sharding.Shards;
+import com.xogito.project.user.management.sharding.TestShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class StartupWarmupTests {
+    @Mock
+    private ProjectRepository projectRepository;
+    @Mock
+    private MembershipService membershipService;
+    @Mock
+    private MembershipAnalyticsService membershipAnalyticsService;
+
+    private final WarmupProperties properties = new WarmupProperties();
+    private StartupWarmup startupWarmup;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        properties.setChunkSize(2);
+        properties.setProjects(3);
+        properties.setThreads(2);
+        startupWarmup = new StartupWarmup(projectRepository, membershipService, membershipAnalyticsService, properties,
+                TestShards.single());
+    }
+
+    @Test
+    public void run_LoadsGraphAnalyticsAndHottestProjects() {
+        // Arrange
+        when(projectRepository.findAllBy(any(Pageable.class))).thenAnswer(invocation -> List.of(project(), project()));
+        when(projectRepository.findAssignedUsersOfProjects(anyList(), any(Pageable.class)))
+                .thenReturn(List.of(new UserDTO(UUID.randomUUID(), "Jane", "jane@example.com")));
+
+        // Act
+        startupWarmup.run(null);
+
+        // Assert
+        WarmupReport report = startupWarmup.getReport();
+        assertEquals(WarmupReport.State.COMPLETED, report.getState());
+        assertEquals(3, report.getProjectsLoaded().get());
+        assertEquals(2, report.getUsersLoaded().get());
+        assertTrue(report.isMembershipGraphLoaded());
+        assertTrue(report.isAnalyticsLoaded());
+        verify(membershipService).rebuild();
+        verify(membershipAnalyticsService).recompute();
+        verify(projectRepository, times(2)).findAllBy(any(Pageable.class));
+    }
+
+    @Test
+    public void run_ReportsTimeoutWhenWarmupIsSlow() throws Exception {
+        // Arrange
+        properties.setTimeout(Duration.ofMillis(50));
+        properties.setProjects(0);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(membershipService).rebuild();
+
+        // Act
+        startupWarmup.run(null);
+
+        // Assert
+        assertEquals(WarmupReport.State.TIMED_OUT, startupWarmup.getReport().getState());
+        assertFalse(startupWarmup.getReport().isMembershipGraphLoaded());
+        release.countDown();
+    }
+
+    private static Project project() {
+        Project project = new Project();
+        project.setId(UUID.randomUUID());
+        return project;
+    }
+}
@@ -0,0 +1,2 @@
+-- The container creates shard_0; ShardingIntegrationTests needs a second database next to it.
+CREATE DATABASE shard_1;